@@ -0,0 +1,53 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Headless energy cable, collects offers into set as ordinary cable block entity
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class BenchmarkCable implements EnergyCable {
+    private final BigDecimal resistance;
+    private final EnergyLevel energyLevel;
+    private Set<EnergyOffer> offers = new HashSet<>();
+
+    public BenchmarkCable(@NotNull BigDecimal resistance,
+                          @NotNull EnergyLevel energyLevel) {
+        this.resistance = resistance;
+        this.energyLevel = energyLevel;
+    }
+
+    @NotNull
+    @Override
+    public BigDecimal getResistance() {
+        return resistance;
+    }
+
+    @NotNull
+    @Override
+    public Set<EnergyOffer> retrieveUpcomingOffers() {
+        var upcomingOffers = offers;
+        offers = new HashSet<>();
+        return upcomingOffers;
+    }
+
+    @NotNull
+    @Override
+    public EnergyLevel getEnergyLevel() {
+        return energyLevel;
+    }
+
+    @Override
+    public void receiveOffer(@NotNull EnergyOffer energyOffer) {
+        offers.add(energyOffer);
+    }
+}
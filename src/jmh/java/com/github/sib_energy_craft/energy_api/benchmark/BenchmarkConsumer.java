@@ -0,0 +1,98 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Headless energy consumer, that accepts every received offer.<br/>
+ * Received energy is stored and used by consumer on its tick, not more than usage per tick,
+ * the rest of energy stays buffered.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class BenchmarkConsumer implements EnergyConsumer {
+    private final long usage;
+    private long received;
+    private long lost;
+    private long used;
+    private long stored;
+
+    /**
+     * Create consumer, that uses all received energy
+     */
+    public BenchmarkConsumer() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Create consumer with limited usage
+     *
+     * @param usage raw amount of energy used per tick
+     */
+    public BenchmarkConsumer(long usage) {
+        this.usage = usage;
+    }
+
+    @Override
+    public boolean isConsumeFrom(@NotNull Direction direction) {
+        return true;
+    }
+
+    @Override
+    public void receiveOffer(@NotNull EnergyOffer energyOffer) {
+        if (energyOffer.acceptOffer()) {
+            var energyAmount = energyOffer.getEnergyAmount().getRaw();
+            received += energyAmount;
+            stored += energyAmount;
+            lost += energyOffer.getBaseEnergyAmount().getRaw() - energyAmount;
+        }
+    }
+
+    /**
+     * Use stored energy, should be called once per tick after energy delivery
+     */
+    public void tick() {
+        var amount = Math.min(stored, usage);
+        used += amount;
+        stored -= amount;
+    }
+
+    /**
+     * Get raw amount of received energy
+     *
+     * @return received energy
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Get raw amount of used energy
+     *
+     * @return used energy
+     */
+    public long getUsed() {
+        return used;
+    }
+
+    /**
+     * Get raw amount of received, but not used energy
+     *
+     * @return stored energy
+     */
+    public long getStored() {
+        return stored;
+    }
+
+    /**
+     * Get raw amount of energy, lost on the way to consumer by received offers
+     *
+     * @return lost energy
+     */
+    public long getLost() {
+        return lost;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Headless energy supplier with unlimited energy
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class BenchmarkSupplier implements EnergySupplier {
+    private static final Set<Direction> DIRECTIONS = EnumSet.allOf(Direction.class);
+
+    private final Energy energy;
+    private long supplied;
+
+    public BenchmarkSupplier(int energy) {
+        this.energy = Energy.of(energy);
+    }
+
+    @NotNull
+    @Override
+    public Set<Direction> getSupplyingDirections() {
+        return DIRECTIONS;
+    }
+
+    @NotNull
+    @Override
+    public EnergyOffer createOffer() {
+        return new EnergyOffer(this, energy);
+    }
+
+    @Override
+    public boolean supplyEnergy(@NotNull Energy energyAmount) {
+        supplied = Energy.addRaw(supplied, energyAmount.getRaw());
+        return true;
+    }
+
+    /**
+     * Get raw amount of supplied energy
+     *
+     * @return supplied energy
+     */
+    public long getSupplied() {
+        return supplied;
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of energy arithmetic
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnergyBenchmark {
+    private int amount;
+    private Energy left;
+    private Energy right;
+    private BigDecimal resistance;
+
+    @Setup
+    public void setUp() {
+        amount = 10_000;
+        left = Energy.of(12_345);
+        right = Energy.of(new BigDecimal("321.5"));
+        resistance = new BigDecimal("0.2");
+    }
+
+    @Benchmark
+    public Energy of() {
+        return Energy.of(amount);
+    }
+
+    @Benchmark
+    public Energy add() {
+        return left.add(right);
+    }
+
+    @Benchmark
+    public Energy subtract() {
+        return left.subtract(right);
+    }
+
+    @Benchmark
+    public Energy subtractBigDecimal() {
+        return left.subtract(resistance);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return left.compareTo(right);
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of energy network tick on synthetic cable line: supplier, cables and consumer at the end.<br/>
+ * Network manager is created without world, so benchmark runs headless.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnergyNetworkBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int segments;
+
+    private EnergyNetworkManager manager;
+    private long middlePos;
+    private BenchmarkCable middleCable;
+    private BenchmarkConsumer consumer;
+
+    @Setup
+    public void setUp() {
+        manager = new EnergyNetworkManager(null);
+        manager.add(BlockPos.asLong(0, 64, 0), new BenchmarkSupplier(32));
+        for (int i = 1; i <= segments; i++) {
+            var cable = new BenchmarkCable(BigDecimal.ZERO, EnergyLevel.L1);
+            var pos = BlockPos.asLong(i, 64, 0);
+            manager.add(pos, cable);
+            if (i == segments / 2 + 1) {
+                middlePos = pos;
+                middleCable = cable;
+            }
+        }
+        consumer = new BenchmarkConsumer();
+        manager.add(BlockPos.asLong(segments + 1, 64, 0), consumer);
+        manager.tick();
+    }
+
+    /**
+     * Tick of network in steady state
+     */
+    @Benchmark
+    public long tick() {
+        manager.tick();
+        return consumer.getReceived();
+    }
+
+    /**
+     * Tick of network after replacement of cable in the middle of line: split, merge and routes rebuild
+     */
+    @Benchmark
+    public long replaceCableAndTick() {
+        manager.remove(middlePos, middleCable);
+        manager.add(middlePos, middleCable);
+        manager.tick();
+        return consumer.getReceived();
+    }
+}
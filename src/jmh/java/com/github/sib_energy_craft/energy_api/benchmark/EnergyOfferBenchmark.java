@@ -0,0 +1,40 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of energy offer forking
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnergyOfferBenchmark {
+    private EnergyOffer offer;
+    private BigDecimal resistance;
+    private long rawResistance;
+
+    @Setup
+    public void setUp() {
+        offer = new BenchmarkSupplier(32).createOffer();
+        resistance = new BigDecimal("0.2");
+        rawResistance = Energy.toRaw(resistance);
+    }
+
+    @Benchmark
+    public EnergyOffer fork() {
+        return offer.fork(resistance);
+    }
+
+    @Benchmark
+    public EnergyOffer forkRaw() {
+        return offer.fork(rawResistance);
+    }
+}
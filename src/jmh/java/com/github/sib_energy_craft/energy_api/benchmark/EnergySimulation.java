@@ -0,0 +1,236 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless simulation of energy grid.<br/>
+ * Simulation builds synthetic {@link EnergyTopology} from benchmark suppliers, cables and consumers
+ * and runs it through energy network engine or default tickers without world, so it doesn't need Minecraft server,
+ * see {@link EnergySimulationMode}.<br/>
+ * Simulation is deterministic: the same topology, size and seed give the same report checksum,
+ * so grid problems can be reproduced and compared between versions.<br/>
+ * Can be started by gradle task {@code simulate}, e.g. {@code ./gradlew simulate -Psimulation="MESH 10000 1200 42"}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergySimulation {
+    private final EnergyNetworkManager manager = new EnergyNetworkManager(null);
+    private final Map<Long, Object> blocks = new LinkedHashMap<>();
+    private final List<BenchmarkSupplier> suppliers = new ArrayList<>();
+    private final List<BenchmarkConsumer> consumers = new ArrayList<>();
+    private final EnergySimulationMode mode;
+    private final BigDecimal resistance;
+    private final int supplierEnergy;
+    private final long consumerUsage;
+
+    /**
+     * Create simulation and build topology
+     *
+     * @param topology grid topology
+     * @param size approximate amount of cables
+     * @param seed random seed of topology
+     * @param resistance resistance of cables
+     * @param supplierEnergy energy of suppliers offers
+     */
+    public EnergySimulation(@NotNull EnergyTopology topology,
+                            int size,
+                            long seed,
+                            @NotNull BigDecimal resistance,
+                            int supplierEnergy) {
+        this(topology, size, seed, resistance, supplierEnergy, EnergySimulationMode.NETWORKS, 0);
+    }
+
+    /**
+     * Create simulation and build topology
+     *
+     * @param topology grid topology
+     * @param size approximate amount of cables
+     * @param seed random seed of topology
+     * @param resistance resistance of cables
+     * @param supplierEnergy energy of suppliers offers
+     * @param mode way of energy delivery
+     * @param consumerUsage energy used by consumer per tick, 0 - all received energy
+     */
+    public EnergySimulation(@NotNull EnergyTopology topology,
+                            int size,
+                            long seed,
+                            @NotNull BigDecimal resistance,
+                            int supplierEnergy,
+                            @NotNull EnergySimulationMode mode,
+                            int consumerUsage) {
+        this.mode = mode;
+        this.resistance = resistance;
+        this.supplierEnergy = supplierEnergy;
+        this.consumerUsage = consumerUsage <= 0 ? Long.MAX_VALUE : Energy.of(consumerUsage).getRaw();
+        manager.setSuspended(mode == EnergySimulationMode.TICKERS);
+        topology.build(this, size, new Random(seed));
+    }
+
+    void addSupplier(long pos) {
+        var supplier = new BenchmarkSupplier(supplierEnergy);
+        suppliers.add(supplier);
+        add(pos, supplier);
+    }
+
+    void addCable(long pos) {
+        add(pos, new BenchmarkCable(resistance, EnergyLevel.L1));
+    }
+
+    void addConsumer(long pos) {
+        var consumer = new BenchmarkConsumer(consumerUsage);
+        consumers.add(consumer);
+        add(pos, consumer);
+    }
+
+    boolean isCable(long pos) {
+        return blocks.get(pos) instanceof BenchmarkCable;
+    }
+
+    private void add(long pos, @NotNull Object block) {
+        blocks.put(pos, block);
+        manager.add(pos, block);
+    }
+
+    /**
+     * Run passed amount of ticks
+     *
+     * @param ticks amount of ticks
+     * @return simulation report
+     */
+    @NotNull
+    public EnergySimulationReport run(int ticks) {
+        var allocatedBefore = getAllocatedBytes();
+        var startedAt = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+        var nanos = System.nanoTime() - startedAt;
+        var allocatedAfter = getAllocatedBytes();
+        var supplied = BigInteger.ZERO;
+        for (var supplier : suppliers) {
+            supplied = supplied.add(BigInteger.valueOf(supplier.getSupplied()));
+        }
+        var used = BigInteger.ZERO;
+        var buffered = BigInteger.ZERO;
+        var lost = BigInteger.ZERO;
+        long checksum = 1;
+        for (var consumer : consumers) {
+            used = used.add(BigInteger.valueOf(consumer.getUsed()));
+            buffered = buffered.add(BigInteger.valueOf(consumer.getStored()));
+            lost = lost.add(BigInteger.valueOf(consumer.getLost()));
+            checksum = checksum * 31 + consumer.getReceived();
+        }
+        var nodes = getNodes();
+        return new EnergySimulationReport(
+                ticks,
+                nanos,
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore,
+                manager.getNetworks().size(),
+                nodes,
+                getBurned(nodes),
+                supplied,
+                used,
+                buffered,
+                lost,
+                checksum
+        );
+    }
+
+    private void tick() {
+        if (mode == EnergySimulationMode.NETWORKS) {
+            manager.tick();
+        } else {
+            for (var entry : blocks.entrySet()) {
+                var block = entry.getValue();
+                if (block instanceof EnergySupplier supplier) {
+                    supplier.tick(manager, entry.getKey());
+                } else if (block instanceof EnergyCable cable) {
+                    cable.tick(manager, entry.getKey());
+                }
+            }
+        }
+        for (var consumer : consumers) {
+            consumer.tick();
+        }
+    }
+
+    /**
+     * Get amount of burned cables.<br/>
+     * Default tickers of world-less manager don't remove overloaded cables, so explosions are counted instead
+     */
+    private long getBurned(long nodes) {
+        if (mode == EnergySimulationMode.TICKERS) {
+            return manager.getStatistics().getExplosions();
+        }
+        return blocks.size() - nodes;
+    }
+
+    /**
+     * Get amount of nodes in all networks, world-less manager removes burned cables from graph
+     */
+    private long getNodes() {
+        long nodes = 0;
+        for (var network : manager.getNetworks()) {
+            nodes += network.getSize();
+        }
+        return nodes;
+    }
+
+    /**
+     * Get amount of bytes allocated by current thread
+     *
+     * @return allocated bytes or -1 if JVM doesn't support allocation measurement
+     */
+    private static long getAllocatedBytes() {
+        var threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Run simulation from command line.<br/>
+     * Arguments: topology, cables, ticks, seed, cable resistance, supplier energy, simulation mode, consumer usage.
+     * Warm-up run with the same arguments done before measured run.
+     *
+     * @param args command line arguments
+     */
+    public static void main(@NotNull String[] args) {
+        var topology = EnergyTopology.valueOf(arg(args, 0, "LINE"));
+        var size = Integer.parseInt(arg(args, 1, "1000"));
+        var ticks = Integer.parseInt(arg(args, 2, "1200"));
+        var seed = Long.parseLong(arg(args, 3, "1"));
+        var resistance = new BigDecimal(arg(args, 4, "0"));
+        var supplierEnergy = Integer.parseInt(arg(args, 5, "32"));
+        var mode = EnergySimulationMode.valueOf(arg(args, 6, "NETWORKS"));
+        var consumerUsage = Integer.parseInt(arg(args, 7, "0"));
+
+        new EnergySimulation(topology, size, seed, resistance, supplierEnergy, mode, consumerUsage).run(ticks);
+        var report = new EnergySimulation(topology, size, seed, resistance, supplierEnergy, mode, consumerUsage).run(ticks);
+        System.out.printf("%s %s size=%d seed=%d%n%s%n", topology, mode, size, seed, report);
+        if (!report.isConserved()) {
+            System.exit(1);
+        }
+    }
+
+    @NotNull
+    private static String arg(@NotNull String[] args, int index, @NotNull String defaultValue) {
+        return args.length > index ? args[index] : defaultValue;
+    }
+}
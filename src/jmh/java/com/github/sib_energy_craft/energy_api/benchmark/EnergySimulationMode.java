@@ -0,0 +1,18 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+/**
+ * Way of energy delivery in {@link EnergySimulation}
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public enum EnergySimulationMode {
+    /**
+     * Energy delivered by energy networks engine
+     */
+    NETWORKS,
+    /**
+     * Energy delivered by default suppliers and cables tickers, blocks ticked in placement order
+     */
+    TICKERS
+}
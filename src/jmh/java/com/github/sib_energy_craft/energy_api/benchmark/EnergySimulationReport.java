@@ -0,0 +1,189 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import com.github.sib_energy_craft.energy_api.constants.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Report of {@link EnergySimulation} run
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergySimulationReport {
+    private final int ticks;
+    private final long nanos;
+    private final long allocatedBytes;
+    private final int networks;
+    private final long nodes;
+    private final long burned;
+    private final BigInteger supplied;
+    private final BigInteger used;
+    private final BigInteger buffered;
+    private final BigInteger lost;
+    private final long checksum;
+
+    EnergySimulationReport(int ticks,
+                           long nanos,
+                           long allocatedBytes,
+                           int networks,
+                           long nodes,
+                           long burned,
+                           @NotNull BigInteger supplied,
+                           @NotNull BigInteger used,
+                           @NotNull BigInteger buffered,
+                           @NotNull BigInteger lost,
+                           long checksum) {
+        this.ticks = ticks;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+        this.networks = networks;
+        this.nodes = nodes;
+        this.burned = burned;
+        this.supplied = supplied;
+        this.used = used;
+        this.buffered = buffered;
+        this.lost = lost;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Get amount of simulated ticks per second of wall time
+     *
+     * @return ticks per second
+     */
+    public double getTicksPerSecond() {
+        return nanos == 0 ? 0 : ticks * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Get amount of bytes allocated per tick
+     *
+     * @return allocated bytes per tick or -1 if not measured
+     */
+    public long getAllocatedBytesPerTick() {
+        return allocatedBytes < 0 || ticks == 0 ? -1 : allocatedBytes / ticks;
+    }
+
+    /**
+     * Check energy conservation: energy supplied by suppliers is equal to energy used by consumers
+     * plus energy buffered in consumers plus energy lost in cables.<br/>
+     * Offers, that burned cables, are supplied but not received, so if any cable burned,
+     * then supplied energy should be not less than used, buffered and lost.
+     *
+     * @return true - energy conserved, false - otherwise
+     */
+    public boolean isConserved() {
+        var accounted = used.add(buffered).add(lost);
+        return burned == 0 ? supplied.equals(accounted) : supplied.compareTo(accounted) >= 0;
+    }
+
+    /**
+     * Get checksum of energy received by each consumer, equal for equal runs
+     *
+     * @return checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public int getNetworks() {
+        return networks;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get amount of cables burned since simulation start
+     *
+     * @return burned cables
+     */
+    public long getBurned() {
+        return burned;
+    }
+
+    /**
+     * Get total energy supplied by suppliers
+     *
+     * @return supplied energy
+     */
+    @NotNull
+    public BigDecimal getSupplied() {
+        return toAmount(supplied);
+    }
+
+    /**
+     * Get total energy received by consumers
+     *
+     * @return received energy
+     */
+    @NotNull
+    public BigDecimal getReceived() {
+        return toAmount(used.add(buffered));
+    }
+
+    /**
+     * Get total energy used by consumers
+     *
+     * @return used energy
+     */
+    @NotNull
+    public BigDecimal getUsed() {
+        return toAmount(used);
+    }
+
+    /**
+     * Get energy received, but not used by consumers yet
+     *
+     * @return buffered energy
+     */
+    @NotNull
+    public BigDecimal getBuffered() {
+        return toAmount(buffered);
+    }
+
+    /**
+     * Get total energy lost in cables
+     *
+     * @return lost energy
+     */
+    @NotNull
+    public BigDecimal getLost() {
+        return toAmount(lost);
+    }
+
+    /**
+     * Totals are kept as big integers, as sum of raw amounts of all blocks can exceed long on long runs
+     */
+    @NotNull
+    private static BigDecimal toAmount(@NotNull BigInteger raw) {
+        return new BigDecimal(raw, Constants.ENERGY_PRECISION).stripTrailingZeros();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ticks=%d tps=%.1f alloc/tick=%dB networks=%d nodes=%d burned=%d supplied=%s used=%s buffered=%s lost=%s conserved=%b checksum=%016x",
+                ticks,
+                getTicksPerSecond(),
+                getAllocatedBytesPerTick(),
+                networks,
+                nodes,
+                burned,
+                getSupplied().toPlainString(),
+                getUsed().toPlainString(),
+                getBuffered().toPlainString(),
+                getLost().toPlainString(),
+                isConserved(),
+                checksum
+        );
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Synthetic topologies of energy grid, used by {@link EnergySimulation}.<br/>
+ * Topology places approximately passed amount of cables, random topologies are defined by simulation seed.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public enum EnergyTopology {
+    /**
+     * Supplier, line of cables and consumer at the end
+     */
+    LINE {
+        @Override
+        void build(@NotNull EnergySimulation simulation, int size, @NotNull Random random) {
+            simulation.addSupplier(BlockPos.asLong(0, Y, 0));
+            for (int i = 1; i <= size; i++) {
+                simulation.addCable(BlockPos.asLong(i, Y, 0));
+            }
+            simulation.addConsumer(BlockPos.asLong(size + 1, Y, 0));
+        }
+    },
+    /**
+     * Square grid of cables, suppliers along one edge and consumers along opposite edge
+     */
+    MESH {
+        @Override
+        void build(@NotNull EnergySimulation simulation, int size, @NotNull Random random) {
+            int side = Math.max(1, (int) Math.sqrt(size));
+            for (int x = 0; x < side; x++) {
+                for (int z = 0; z < side; z++) {
+                    simulation.addCable(BlockPos.asLong(x, Y, z));
+                }
+            }
+            for (int z = 0; z < side; z += EDGE_STEP) {
+                simulation.addSupplier(BlockPos.asLong(-1, Y, z));
+                simulation.addConsumer(BlockPos.asLong(side, Y, z));
+            }
+        }
+    },
+    /**
+     * Hub with supplier on top and four cable arms, every arm cable has consumer above it
+     */
+    STAR {
+        @Override
+        void build(@NotNull EnergySimulation simulation, int size, @NotNull Random random) {
+            simulation.addCable(BlockPos.asLong(0, Y, 0));
+            simulation.addSupplier(BlockPos.asLong(0, Y + 1, 0));
+            int arm = Math.max(1, size / 4);
+            for (var direction : HORIZONTAL) {
+                for (int i = 1; i <= arm; i++) {
+                    int x = direction.getOffsetX() * i;
+                    int z = direction.getOffsetZ() * i;
+                    simulation.addCable(BlockPos.asLong(x, Y, z));
+                    simulation.addConsumer(BlockPos.asLong(x, Y + 1, z));
+                }
+            }
+        }
+    },
+    /**
+     * Random walk of cables with randomly attached suppliers and consumers
+     */
+    RANDOM {
+        @Override
+        void build(@NotNull EnergySimulation simulation, int size, @NotNull Random random) {
+            var directions = Direction.values();
+            var used = new HashSet<Long>();
+            var pos = BlockPos.asLong(0, Y, 0);
+            int cables = 0;
+            while (cables < size) {
+                if (used.add(pos)) {
+                    simulation.addCable(pos);
+                    cables++;
+                    var attachment = random.nextInt(ATTACHMENT_CHANCE);
+                    if (attachment < 2) {
+                        var attachmentPos = BlockPos.offset(pos, directions[random.nextInt(directions.length)]);
+                        if (used.add(attachmentPos)) {
+                            if (attachment == 0) {
+                                simulation.addSupplier(attachmentPos);
+                            } else {
+                                simulation.addConsumer(attachmentPos);
+                            }
+                        }
+                    }
+                }
+                var next = BlockPos.offset(pos, directions[random.nextInt(directions.length)]);
+                if (!used.contains(next) || simulation.isCable(next)) {
+                    pos = next;
+                }
+            }
+        }
+    };
+
+    private static final Direction[] HORIZONTAL = {Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST};
+    private static final int Y = 64;
+    /**
+     * Distance between suppliers and between consumers on mesh edges
+     */
+    private static final int EDGE_STEP = 8;
+    /**
+     * One of such amount of random walk cables gets supplier and one gets consumer
+     */
+    private static final int ATTACHMENT_CHANCE = 16;
+
+    /**
+     * Place topology blocks into simulation
+     *
+     * @param simulation energy simulation
+     * @param size approximate amount of cables
+     * @param random seeded random
+     */
+    abstract void build(@NotNull EnergySimulation simulation, int size, @NotNull Random random);
+}
@@ -0,0 +1,58 @@
+package com.github.sib_energy_craft.energy_api.cable;
+
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.benchmark.BenchmarkSupplier;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of offers reduction of default cable ticker and of {@link EnergyOfferBuffer}
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnergyCableTickerBenchmark {
+    @Param({"1", "8", "64"})
+    private int suppliers;
+
+    private Set<EnergyOffer> offers;
+    private EnergyOffer[] offersArray;
+    private EnergyOfferBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        var resistance = new BigDecimal("0.2");
+        offers = new HashSet<>();
+        for (int i = 0; i < suppliers; i++) {
+            var offer = new BenchmarkSupplier(32).createOffer();
+            offers.add(offer);
+            offers.add(offer.fork(resistance));
+            offers.add(offer.fork(resistance.add(resistance)));
+        }
+        offersArray = offers.toArray(new EnergyOffer[0]);
+        buffer = new EnergyOfferBuffer();
+    }
+
+    @Benchmark
+    public Map<EnergySupplier, EnergyOffer> getMostValuableOffers() {
+        return EnergyCableTicker.getMostValuableOffers(offers);
+    }
+
+    @Benchmark
+    public int offerBuffer() {
+        for (var offer : offersArray) {
+            buffer.offer(offer);
+        }
+        buffer.flip();
+        return buffer.size();
+    }
+}
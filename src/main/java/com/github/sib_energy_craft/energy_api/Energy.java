@@ -3,65 +3,190 @@ package com.github.sib_energy_craft.energy_api;
 import com.github.sib_energy_craft.energy_api.constants.Constants;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 /**
+ * Amount of energy.<br/>
+ * Energy stored as fixed-point value backed by primitive long, scaled by {@link Constants#ENERGY_SCALE}.<br/>
+ * Amount is never negative, max amount is {@link Long#MAX_VALUE} raw units, arithmetic saturates on overflow.
+ *
  * @since 0.0.1
  * @author sibmaks
  */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-@ToString
+@EqualsAndHashCode
 public class Energy implements Comparable<Energy> {
+    private static final int CACHE_HIGH = 8192;
+    private static final Energy[] CACHE = new Energy[CACHE_HIGH + 1];
+    private static final long MAX_INTEGER_AMOUNT = Long.MAX_VALUE / Constants.ENERGY_SCALE;
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Energy(i * Constants.ENERGY_SCALE);
+        }
+    }
+
     public static Energy ZERO = Energy.of(0);
 
+    /**
+     * Raw fixed-point amount of energy
+     *
+     * @since 0.0.5
+     */
     @Getter
-    private final BigDecimal amount;
+    private final long raw;
 
     @NotNull
     public static Energy of(int amount) {
-        var decimalAmount = BigDecimal.valueOf(amount)
-                .setScale(Constants.ENERGY_PRECISION, RoundingMode.HALF_DOWN)
-                .max(Constants.ACCURATE_ZERO);
-        return new Energy(decimalAmount);
+        if (amount <= 0) {
+            return CACHE[0];
+        }
+        if (amount <= CACHE_HIGH) {
+            return CACHE[amount];
+        }
+        return new Energy(toRaw(amount));
     }
 
     @NotNull
     public static Energy of(@NotNull BigDecimal amount) {
-        amount = amount
+        return ofRaw(toRaw(amount));
+    }
+
+    /**
+     * Create energy from raw fixed-point amount.<br/>
+     * Integer amounts up to the highest energy level are cached and not allocated.
+     *
+     * @param raw raw amount
+     * @return energy
+     * @since 0.0.5
+     */
+    @NotNull
+    public static Energy ofRaw(long raw) {
+        if (raw <= 0) {
+            return CACHE[0];
+        }
+        if (raw % Constants.ENERGY_SCALE == 0) {
+            var amount = raw / Constants.ENERGY_SCALE;
+            if (amount <= CACHE_HIGH) {
+                return CACHE[(int) amount];
+            }
+        }
+        return new Energy(raw);
+    }
+
+    /**
+     * Convert integer amount to raw fixed-point amount
+     *
+     * @param amount integer amount
+     * @return raw amount, not negative
+     * @since 0.0.5
+     */
+    public static long toRaw(int amount) {
+        if (amount <= 0) {
+            return 0;
+        }
+        if (amount > MAX_INTEGER_AMOUNT) {
+            return Long.MAX_VALUE;
+        }
+        return amount * Constants.ENERGY_SCALE;
+    }
+
+    /**
+     * Convert decimal amount to raw fixed-point amount.<br/>
+     * Amount rounded to {@link Constants#ENERGY_PRECISION} with {@link RoundingMode#HALF_DOWN}.
+     *
+     * @param amount decimal amount
+     * @return raw amount, not negative
+     * @since 0.0.5
+     */
+    public static long toRaw(@NotNull BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            return 0;
+        }
+        var unscaled = amount
                 .setScale(Constants.ENERGY_PRECISION, RoundingMode.HALF_DOWN)
-                .max(Constants.ACCURATE_ZERO);
-        return new Energy(amount);
+                .unscaledValue();
+        if (unscaled.bitLength() >= Long.SIZE) {
+            return Long.MAX_VALUE;
+        }
+        return unscaled.longValue();
+    }
+
+    /**
+     * Add raw amounts with saturation
+     *
+     * @param raw raw amount
+     * @param other raw amount to add
+     * @return raw sum, not negative
+     * @since 0.0.5
+     */
+    public static long addRaw(long raw, long other) {
+        var result = raw + other;
+        if (((raw ^ result) & (other ^ result)) < 0) {
+            return raw < 0 ? 0 : Long.MAX_VALUE;
+        }
+        return Math.max(0, result);
+    }
+
+    /**
+     * Subtract raw amounts with saturation
+     *
+     * @param raw raw amount
+     * @param other raw amount to subtract
+     * @return raw difference, not negative
+     * @since 0.0.5
+     */
+    public static long subtractRaw(long raw, long other) {
+        var result = raw - other;
+        if (((raw ^ other) & (raw ^ result)) < 0) {
+            return raw < 0 ? 0 : Long.MAX_VALUE;
+        }
+        return Math.max(0, result);
+    }
+
+    /**
+     * Get amount as decimal value with {@link Constants#ENERGY_PRECISION} scale
+     *
+     * @return decimal amount
+     */
+    @NotNull
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(raw, Constants.ENERGY_PRECISION);
     }
 
     @NotNull
     public Energy subtract(@NotNull Energy energy) {
-        var result = amount.subtract(energy.amount);
-        return of(result);
+        return subtractRawAmount(energy.raw);
     }
 
     @NotNull
     public Energy subtract(@NotNull BigDecimal energy) {
-        var result = amount.subtract(energy);
-        return of(result);
+        if (energy.scale() > Constants.ENERGY_PRECISION) {
+            return of(getAmount().subtract(energy));
+        }
+        if (energy.signum() < 0) {
+            return add(of(energy.negate()));
+        }
+        return subtractRawAmount(toRaw(energy));
     }
 
     @NotNull
     public Energy subtract(int energy) {
-        return this.subtract(Energy.of(energy));
+        return subtractRawAmount(toRaw(energy));
     }
 
     @Override
     public int compareTo(@NotNull Energy o) {
-        return amount.compareTo(o.amount);
+        return Long.compare(raw, o.raw);
     }
 
     public int intValue() {
-        return amount.intValue();
+        return (int) (raw / Constants.ENERGY_SCALE);
     }
 
     @NotNull
@@ -71,12 +196,32 @@ public class Energy implements Comparable<Energy> {
 
     @NotNull
     public Energy add(@NotNull Energy energy) {
-        var result = amount.add(energy.amount);
-        return of(result);
+        return addRawAmount(energy.raw);
     }
 
     @NotNull
     public Energy add(int amount) {
-        return this.add(Energy.of(amount));
+        return addRawAmount(toRaw(amount));
+    }
+
+    @NotNull
+    private Energy addRawAmount(long amount) {
+        if (amount == 0) {
+            return this;
+        }
+        return ofRaw(addRaw(raw, amount));
+    }
+
+    @NotNull
+    private Energy subtractRawAmount(long amount) {
+        if (amount == 0) {
+            return this;
+        }
+        return ofRaw(subtractRaw(raw, amount));
+    }
+
+    @Override
+    public String toString() {
+        return "Energy(amount=" + getAmount() + ")";
     }
 }
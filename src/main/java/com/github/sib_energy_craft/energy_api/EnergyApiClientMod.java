@@ -0,0 +1,21 @@
+package com.github.sib_energy_craft.energy_api;
+
+import com.github.sib_energy_craft.energy_api.items.ChargeSyncClient;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+/**
+ * Energy API client mod initializer
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@Environment(EnvType.CLIENT)
+public final class EnergyApiClientMod implements ClientModInitializer {
+
+    @Override
+    public void onInitializeClient() {
+        ChargeSyncClient.register();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.sib_energy_craft.energy_api;
+
+import com.github.sib_energy_craft.energy_api.items.ChargeSync;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworks;
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
+import com.github.sib_energy_craft.energy_api.tags.CoreTags;
+import net.fabricmc.api.ModInitializer;
+
+/**
+ * Energy API mod initializer
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyApiMod implements ModInitializer {
+
+    @Override
+    public void onInitialize() {
+        EnergyNetworks.register();
+        EnergyStatistics.register();
+        CoreTags.register();
+        ChargeSync.register();
+    }
+}
@@ -19,11 +19,26 @@ public enum EnergyLevel {
     public final Energy fromBig;
     public final int to;
     public final Energy toBig;
+    /**
+     * Raw lower bound of level, see {@link Energy#getRaw()}
+     *
+     * @since 0.0.5
+     */
+    public final long fromRaw;
+    /**
+     * Raw upper bound of level, see {@link Energy#getRaw()}.<br/>
+     * Primitive threshold for overload checks in hot loops.
+     *
+     * @since 0.0.5
+     */
+    public final long toRaw;
 
     EnergyLevel(int from, int to) {
         this.from = from;
         this.to = to;
         this.fromBig = Energy.of(from);
         this.toBig = Energy.of(to);
+        this.fromRaw = fromBig.getRaw();
+        this.toRaw = toBig.getRaw();
     }
 }
@@ -1,15 +1,13 @@
 package com.github.sib_energy_craft.energy_api;
 
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
 import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
-import java.util.Objects;
 
 /**
  * The class represent offer of energy from supplier to any consumer.<br/>
@@ -18,7 +16,6 @@ import java.util.Objects;
  * @since 0.0.1
  * @author sibmaks
  */
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @ToString
 public class EnergyOffer implements Comparable<EnergyOffer> {
     @Getter
@@ -26,12 +23,39 @@ public class EnergyOffer implements Comparable<EnergyOffer> {
     @Getter
     private final Energy energyAmount;
     private final Energy baseEnergyAmount;
+    /**
+     * Offer created by supplier, all forks share it
+     */
+    @ToString.Exclude
+    private final EnergyOffer root;
+    @ToString.Exclude
+    private boolean accepted;
+    /**
+     * Statistics, that counts energy of offer when it's accepted
+     */
+    @ToString.Exclude
+    @Nullable
+    private final EnergyStatistics statistics;
 
     public EnergyOffer(@NotNull EnergySupplier source,
                        @NotNull Energy energyAmount) {
         this.source = source;
         this.energyAmount = energyAmount;
         this.baseEnergyAmount = energyAmount;
+        this.root = this;
+        this.statistics = null;
+    }
+
+    private EnergyOffer(@NotNull EnergySupplier source,
+                        @NotNull Energy energyAmount,
+                        @NotNull Energy baseEnergyAmount,
+                        @NotNull EnergyOffer root,
+                        @Nullable EnergyStatistics statistics) {
+        this.source = source;
+        this.energyAmount = energyAmount;
+        this.baseEnergyAmount = baseEnergyAmount;
+        this.root = root;
+        this.statistics = statistics;
     }
 
     /**
@@ -42,7 +66,52 @@ public class EnergyOffer implements Comparable<EnergyOffer> {
      * @return true - offer accepted, false - otherwise
      */
     public boolean acceptOffer() {
-        return source.supplyEnergy(baseEnergyAmount);
+        if (source.supplyEnergy(baseEnergyAmount)) {
+            root.accepted = true;
+            if (statistics != null) {
+                count(statistics, energyAmount.getRaw(), baseEnergyAmount.getRaw());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get energy amount, that supplier supplies if offer accepted
+     *
+     * @return base energy amount
+     * @since 0.0.5
+     */
+    @NotNull
+    public Energy getBaseEnergyAmount() {
+        return baseEnergyAmount;
+    }
+
+    /**
+     * Mark offer as accepted, used when energy is supplied for several offers at once
+     */
+    void markAccepted() {
+        root.accepted = true;
+    }
+
+    /**
+     * Reset accepted state of offer, so supplier can reuse the same offer on next tick.<br/>
+     * Should be called by offer owner only, see {@link com.github.sib_energy_craft.energy_api.supplier.EnergyOfferCache}.
+     *
+     * @since 0.0.5
+     */
+    public void renew() {
+        root.accepted = false;
+    }
+
+    /**
+     * Check is this offer or any of its forks was accepted
+     *
+     * @return true - offer accepted, false - otherwise
+     * @since 0.0.5
+     */
+    public boolean isAccepted() {
+        return root.accepted;
     }
 
     /**
@@ -55,10 +124,70 @@ public class EnergyOffer implements Comparable<EnergyOffer> {
     @Nullable
     public EnergyOffer fork(@NotNull BigDecimal resistance) {
         var energyAmount = this.energyAmount.subtract(resistance);
-        if(energyAmount.compareTo(Energy.ZERO) <= 0) {
+        if(energyAmount.getRaw() <= 0) {
             return null;
         }
-        return new EnergyOffer(source, energyAmount, baseEnergyAmount);
+        return new EnergyOffer(source, energyAmount, baseEnergyAmount, root, null);
+    }
+
+    /**
+     * Fork offer for a new one and reduce offered amount of energy by raw resistance.<br/>
+     * If energy not enough to create new offer then null will be returned
+     *
+     * @param resistance raw amount of losing energy, see {@link Energy#getRaw()}
+     * @return forked offer
+     * @since 0.0.5
+     */
+    @Nullable
+    public EnergyOffer fork(long resistance) {
+        var energyAmount = Energy.subtractRaw(this.energyAmount.getRaw(), resistance);
+        if(energyAmount <= 0) {
+            return null;
+        }
+        return new EnergyOffer(source, Energy.ofRaw(energyAmount), baseEnergyAmount, root, null);
+    }
+
+    /**
+     * Create offer from the same supplier with the same base energy amount, but with passed offered amount.<br/>
+     * If passed energy amount is not positive then null will be returned
+     *
+     * @param energyAmount raw offered energy amount, see {@link Energy#getRaw()}
+     * @return offer with passed amount
+     * @since 0.0.5
+     */
+    @Nullable
+    public EnergyOffer withEnergyAmount(long energyAmount) {
+        if(energyAmount <= 0) {
+            return null;
+        }
+        if(energyAmount == this.energyAmount.getRaw()) {
+            return this;
+        }
+        return new EnergyOffer(source, Energy.ofRaw(energyAmount), baseEnergyAmount, root, null);
+    }
+
+    /**
+     * Create offer with passed offered amount, that counts delivered and lost energy into statistics when accepted
+     *
+     * @param energyAmount raw offered energy amount, see {@link Energy#getRaw()}
+     * @param statistics statistics of delivery
+     * @return counted offer
+     */
+    @NotNull
+    EnergyOffer withStatistics(long energyAmount, @NotNull EnergyStatistics statistics) {
+        return new EnergyOffer(source, Energy.ofRaw(energyAmount), baseEnergyAmount, root, statistics);
+    }
+
+    /**
+     * Count accepted offer: offered amount delivered to consumer, the rest of supplied amount lost on the route
+     *
+     * @param statistics statistics of delivery
+     * @param energyAmount raw offered energy amount
+     * @param baseEnergyAmount raw supplied energy amount
+     */
+    static void count(@NotNull EnergyStatistics statistics, long energyAmount, long baseEnergyAmount) {
+        statistics.addEnergyDelivered(energyAmount);
+        statistics.addEnergyLost(baseEnergyAmount - energyAmount);
     }
 
     @Override
@@ -71,7 +200,7 @@ public class EnergyOffer implements Comparable<EnergyOffer> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(source, energyAmount);
+        return 31 * source.hashCode() + energyAmount.hashCode();
     }
 
     @Override
@@ -0,0 +1,201 @@
+package com.github.sib_energy_craft.energy_api;
+
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Batch of energy offers, received by one consumer on one tick.<br/>
+ * Offers stored as pairs of supplier offer and raw offered amount, see {@link Energy#getRaw()},
+ * so forked offers are not created until {@link #getOffer(int)} called.<br/>
+ * Consumer marks offers it wants to take by {@link #accept(int)} and calls {@link #settle()},
+ * accepted offers of one supplier settled by one {@link EnergySupplier#supplyEnergy(Energy)} call.<br/>
+ * Delivered and lost energy counted into statistics of batch only for accepted offers.<br/>
+ * Batch is reused by energy network, it's valid until next delivery of energy to consumer.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyOfferBatch {
+    private EnergyOffer[] offers = new EnergyOffer[4];
+    private EnergyOffer[] forks = new EnergyOffer[4];
+    private long[] amounts = new long[4];
+    private boolean[] marked = new boolean[4];
+    private boolean[] accepted = new boolean[4];
+    private boolean[] settled = new boolean[4];
+    private int size;
+    @Nullable
+    private EnergyStatistics statistics;
+
+    /**
+     * Clear batch
+     */
+    public void clear() {
+        clear(null);
+    }
+
+    /**
+     * Clear batch and set statistics, that counts energy of offers accepted from batch
+     *
+     * @param statistics statistics of delivery or null, if energy is not counted
+     */
+    public void clear(@Nullable EnergyStatistics statistics) {
+        Arrays.fill(offers, 0, size, null);
+        Arrays.fill(forks, 0, size, null);
+        size = 0;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Add offer with passed energy amount into batch.<br/>
+     * Passed offer used only as source of supplier and base energy amount.
+     *
+     * @param offer energy offer
+     * @param energyAmount raw offered energy amount
+     */
+    public void add(@NotNull EnergyOffer offer, long energyAmount) {
+        if (energyAmount <= 0) {
+            return;
+        }
+        if (size == offers.length) {
+            int capacity = size * 2;
+            offers = Arrays.copyOf(offers, capacity);
+            forks = Arrays.copyOf(forks, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            marked = Arrays.copyOf(marked, capacity);
+            accepted = Arrays.copyOf(accepted, capacity);
+            settled = Arrays.copyOf(settled, capacity);
+        }
+        offers[size] = offer;
+        amounts[size] = energyAmount;
+        marked[size] = false;
+        accepted[size] = false;
+        settled[size] = false;
+        size++;
+    }
+
+    /**
+     * Get amount of offers in batch
+     *
+     * @return amount of offers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get supplier of offer
+     *
+     * @param index offer index
+     * @return energy supplier
+     */
+    @NotNull
+    public EnergySupplier getSource(int index) {
+        return offers[index].getSource();
+    }
+
+    /**
+     * Get raw offered energy amount
+     *
+     * @param index offer index
+     * @return raw energy amount
+     */
+    public long getRawEnergyAmount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Get offered energy amount
+     *
+     * @param index offer index
+     * @return energy amount
+     */
+    @NotNull
+    public Energy getEnergyAmount(int index) {
+        return Energy.ofRaw(amounts[index]);
+    }
+
+    /**
+     * Get offer as ordinary energy offer.<br/>
+     * Offer created on first call, used by consumers without batch support.
+     *
+     * @param index offer index
+     * @return energy offer
+     */
+    @NotNull
+    public EnergyOffer getOffer(int index) {
+        var fork = forks[index];
+        if (fork == null) {
+            fork = statistics == null ?
+                    offers[index].withEnergyAmount(amounts[index]) :
+                    offers[index].withStatistics(amounts[index], statistics);
+            forks[index] = fork;
+        }
+        return fork;
+    }
+
+    /**
+     * Mark offer as accepted by consumer, supplier is called on {@link #settle()}
+     *
+     * @param index offer index
+     */
+    public void accept(int index) {
+        marked[index] = true;
+    }
+
+    /**
+     * Check is offer accepted and supplied on settlement
+     *
+     * @param index offer index
+     * @return true - offer accepted, false - otherwise
+     */
+    public boolean isAccepted(int index) {
+        return accepted[index];
+    }
+
+    /**
+     * Settle marked offers against suppliers.<br/>
+     * Marked offers of one supplier settled by one supply call.
+     * If supplier can't supply total amount, then offers of this supplier accepted one by one.
+     *
+     * @return raw amount of accepted energy
+     */
+    public long settle() {
+        long acceptedEnergy = 0;
+        for (int i = 0; i < size; i++) {
+            if (!marked[i] || settled[i]) {
+                continue;
+            }
+            var source = offers[i].getSource();
+            long total = offers[i].getBaseEnergyAmount().getRaw();
+            for (int j = i + 1; j < size; j++) {
+                if (marked[j] && !settled[j] && offers[j].getSource() == source) {
+                    total = Energy.addRaw(total, offers[j].getBaseEnergyAmount().getRaw());
+                }
+            }
+            var supplied = source.supplyEnergy(Energy.ofRaw(total));
+            for (int j = i; j < size; j++) {
+                if (!marked[j] || settled[j] || offers[j].getSource() != source) {
+                    continue;
+                }
+                settled[j] = true;
+                if (supplied) {
+                    offers[j].markAccepted();
+                    accepted[j] = true;
+                } else {
+                    accepted[j] = offers[j].acceptOffer();
+                }
+                if (accepted[j]) {
+                    acceptedEnergy = Energy.addRaw(acceptedEnergy, amounts[j]);
+                    if (statistics != null) {
+                        EnergyOffer.count(statistics, amounts[j], offers[j].getBaseEnergyAmount().getRaw());
+                    }
+                }
+            }
+        }
+        return acceptedEnergy;
+    }
+}
@@ -3,11 +3,14 @@ package com.github.sib_energy_craft.energy_api.cable;
 import com.github.sib_energy_craft.energy_api.constants.Constants;
 import com.github.sib_energy_craft.energy_api.EnergyLevel;
 import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumerNeighbours;
 import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
 import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.util.math.Direction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.util.Set;
@@ -32,7 +35,8 @@ public interface EnergyCable extends EnergyConsumer {
 
     /**
      * Method should be called on every server tick to update state of wire.<br/>
-     * The method has a default behavior and usually does not need to be overridden.
+     * The method has a default behavior and usually does not need to be overridden.<br/>
+     * While {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks} engine is enabled wire is served by its network.
      *
      * @param blockEntity wire block entity
      */
@@ -40,6 +44,18 @@ public interface EnergyCable extends EnergyConsumer {
         EnergyCableTicker.tick(this, blockEntity);
     }
 
+    /**
+     * Update state of wire without world, neighbours are taken from chunk index of passed manager.<br/>
+     * Used by headless simulations, wire is ticked regardless of {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks} engine state.
+     *
+     * @param manager energy blocks manager
+     * @param pos packed wire position
+     * @since 0.0.5
+     */
+    default void tick(@NotNull EnergyNetworkManager manager, long pos) {
+        EnergyCableTicker.tick(this, manager, pos);
+    }
+
     /**
      * The method should return all offers received on previous tick.
      *
@@ -58,6 +74,49 @@ public interface EnergyCable extends EnergyConsumer {
     @NotNull
     EnergyLevel getEnergyLevel();
 
+    /**
+     * Check is cable insulated.<br/>
+     * Uninsulated cable, that carries energy, shocks entities touching it
+     * with damage scaled by carried energy level, see {@link com.github.sib_energy_craft.energy_api.damage.DamageSources#energy}.
+     * Works with enabled {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks} engine only.
+     * If value changed, block should notify engine by {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks#invalidate}.
+     * By default cable is insulated.
+     *
+     * @return true - cable is insulated, false - otherwise
+     * @since 0.0.5
+     */
+    default boolean isInsulated() {
+        return true;
+    }
+
+    /**
+     * Get cache of neighbour energy consumers.<br/>
+     * Block entity can keep own instance of {@link EnergyConsumerNeighbours} to avoid world lookups on every tick.
+     * By default cache is not used.
+     *
+     * @return neighbours cache or null
+     * @since 0.0.5
+     */
+    @Nullable
+    default EnergyConsumerNeighbours getConsumerNeighbours() {
+        return null;
+    }
+
+    /**
+     * Get reusable offers buffer of cable.<br/>
+     * If buffer is not null, then default ticker takes offers from buffer instead of {@link #retrieveUpcomingOffers()}
+     * and passes offers to neighbour cables with buffers without creation of new offers.
+     * In that case {@link #receiveOffer(EnergyOffer)} should put offer into buffer by {@link EnergyOfferBuffer#offer(EnergyOffer)}.
+     * By default buffer is not used.
+     *
+     * @return offers buffer or null
+     * @since 0.0.5
+     */
+    @Nullable
+    default EnergyOfferBuffer getOfferBuffer() {
+        return null;
+    }
+
     @Override
     default boolean isConsumeFrom(@NotNull Direction direction) {
         return true;
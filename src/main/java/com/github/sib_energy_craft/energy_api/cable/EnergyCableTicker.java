@@ -1,13 +1,18 @@
 package com.github.sib_energy_craft.energy_api.cable;
 
+import com.github.sib_energy_craft.energy_api.Energy;
 import com.github.sib_energy_craft.energy_api.EnergyOffer;
 import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworks;
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
 import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
-import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -25,7 +30,14 @@ final class EnergyCableTicker {
     );
 
     /**
-     * The method update cable state, proceed incoming energy offers and forward it if needed.
+     * The method update cable state, proceed incoming energy offers and forward it if needed.<br/>
+     * If energy network engine is enabled, then cable is served by its network and method does nothing.<br/>
+     * If wire provides {@link EnergyCable#getConsumerNeighbours()}, then neighbours are taken from cache.<br/>
+     * If wire provides {@link EnergyCable#getOfferBuffer()}, then offers are taken from buffer without allocations.<br/>
+     * Other neighbours are taken from chunk index of energy blocks, so offers are not forwarded into not loaded or not ticked chunks.<br/>
+     * Overloaded cable is not broken immediately, but scheduled to burn out at the end of tick, see {@link EnergyNetworks#burn(ServerWorld, BlockPos)},
+     * scheduled cable drops incoming offers.<br/>
+     * Forwarded offers, energy losses, explosions and tick time are recorded into {@link EnergyStatistics} of dimension.
      *
      * @param wire wire
      * @param blockEntity wire block entity
@@ -33,31 +45,135 @@ final class EnergyCableTicker {
     public static void tick(@NotNull EnergyCable wire,
                             @NotNull BlockEntity blockEntity) {
         var world = blockEntity.getWorld();
-        if (!(world instanceof ServerWorld serverWorld)) {
+        if (!(world instanceof ServerWorld serverWorld) || EnergyNetworks.isEnabled()) {
             return;
         }
+        tick(wire, EnergyNetworks.get(serverWorld), blockEntity.getPos().asLong());
+    }
 
+    /**
+     * Update cable state, which neighbours are taken from chunk index of passed manager.<br/>
+     * Method doesn't check engine state, so it is used by headless simulations too.
+     *
+     * @param wire wire
+     * @param manager energy blocks manager of wire world
+     * @param pos packed wire position
+     */
+    static void tick(@NotNull EnergyCable wire,
+                     @NotNull EnergyNetworkManager manager,
+                     long pos) {
+        var offerBuffer = wire.getOfferBuffer();
+        if (manager.isBurning(pos)) {
+            if (offerBuffer != null) {
+                offerBuffer.flip();
+            } else {
+                wire.retrieveUpcomingOffers();
+            }
+            return;
+        }
+        var statistics = EnergyStatistics.isEnabled() ? manager.getStatistics() : null;
+        var startedAt = statistics == null ? 0 : System.nanoTime();
+
+        boolean exploded;
+        if (offerBuffer != null) {
+            exploded = tickBuffered(wire, offerBuffer, manager, pos, statistics);
+        } else {
+            exploded = tickOffers(wire, manager, pos, statistics);
+        }
+
+        if (statistics != null) {
+            if (exploded) {
+                statistics.addExplosions(1);
+            }
+            statistics.addTickNanos(System.nanoTime() - startedAt);
+        }
+    }
+
+    private static boolean tickOffers(@NotNull EnergyCable wire,
+                                      @NotNull EnergyNetworkManager manager,
+                                      long pos,
+                                      @Nullable EnergyStatistics statistics) {
         var energyOffers = wire.retrieveUpcomingOffers();
         var mostValuableOffers = getMostValuableOffers(energyOffers);
 
         for (var energyOffer : mostValuableOffers.values()) {
-            if (assertOffer(wire, blockEntity, serverWorld, energyOffer)) {
-                return;
+            if (assertOffer(wire, manager, pos, energyOffer)) {
+                return true;
+            }
+
+            forwardOffer(wire, manager, pos, energyOffer, statistics);
+        }
+        return false;
+    }
+
+    /**
+     * Allocation free variant of tick for cables with offer buffer.<br/>
+     * Neighbours resolved once per tick, offers to neighbour cables with buffers passed as raw amounts.
+     */
+    private static boolean tickBuffered(@NotNull EnergyCable wire,
+                                        @NotNull EnergyOfferBuffer offerBuffer,
+                                        @NotNull EnergyNetworkManager manager,
+                                        long pos,
+                                        @Nullable EnergyStatistics statistics) {
+        offerBuffer.flip();
+        var size = offerBuffer.size();
+        if (size == 0) {
+            return false;
+        }
+        var threshold = wire.getEnergyLevel().toRaw;
+        for (int i = 0; i < size; i++) {
+            if (offerBuffer.getEnergyAmount(i) > threshold && offerBuffer.getOffer(i).acceptOffer()) {
+                manager.burn(pos);
+                return true;
             }
+        }
 
-            forwardOffer(wire, blockEntity, world, energyOffer);
+        var resistance = Energy.toRaw(wire.getResistance());
+        var neighbours = wire.getConsumerNeighbours();
+        if (neighbours != null) {
+            neighbours.resolve(manager, pos);
         }
+        for (var direction : SUPPLYING_DIRECTIONS) {
+            EnergyConsumer consumer;
+            if (neighbours != null) {
+                consumer = neighbours.get(direction);
+            } else {
+                var neighbor = manager.getEnergyBlock(BlockPos.offset(pos, direction));
+                consumer = neighbor instanceof EnergyConsumer energyConsumer &&
+                        energyConsumer.isConsumeFrom(direction.getOpposite()) ? energyConsumer : null;
+            }
+            if (consumer == null) {
+                continue;
+            }
+            var consumerBuffer = consumer instanceof EnergyCable cable ? cable.getOfferBuffer() : null;
+            for (int i = 0; i < size; i++) {
+                var energyAmount = Energy.subtractRaw(offerBuffer.getEnergyAmount(i), resistance);
+                if (energyAmount <= 0) {
+                    continue;
+                }
+                var energyOffer = offerBuffer.getOffer(i);
+                if (consumerBuffer != null) {
+                    consumerBuffer.offer(energyOffer, energyAmount);
+                } else {
+                    var forked = energyOffer.withEnergyAmount(energyAmount);
+                    if (forked == null) {
+                        continue;
+                    }
+                    consumer.receiveOffer(forked);
+                }
+                countForwarded(statistics, consumer, offerBuffer.getEnergyAmount(i), energyAmount);
+            }
+        }
+        return false;
     }
 
     private static boolean assertOffer(@NotNull EnergyCable wire,
-                                       @NotNull BlockEntity blockEntity,
-                                       @NotNull ServerWorld serverWorld,
+                                       @NotNull EnergyNetworkManager manager,
+                                       long pos,
                                        @NotNull EnergyOffer energyOffer) {
-        var wireEnergyLevel = wire.getEnergyLevel();
-        if (wireEnergyLevel.toBig.compareTo(energyOffer.getEnergyAmount()) < 0) {
+        if (energyOffer.getEnergyAmount().getRaw() > wire.getEnergyLevel().toRaw) {
             if (energyOffer.acceptOffer()) {
-                var pos = blockEntity.getPos();
-                serverWorld.breakBlock(pos, false);
+                manager.burn(pos);
                 return true;
             }
         }
@@ -65,30 +181,63 @@ final class EnergyCableTicker {
     }
 
     private static void forwardOffer(@NotNull EnergyCable wire,
-                                     @NotNull BlockEntity blockEntity,
-                                     @NotNull World world,
-                                     @NotNull EnergyOffer energyOffer) {
+                                     @NotNull EnergyNetworkManager manager,
+                                     long pos,
+                                     @NotNull EnergyOffer energyOffer,
+                                     @Nullable EnergyStatistics statistics) {
         var resistance = wire.getResistance();
         var forked = energyOffer.fork(resistance);
         if (forked == null) {
             return;
         }
 
-        var pos = blockEntity.getPos();
+        var neighbours = wire.getConsumerNeighbours();
+        if (neighbours != null) {
+            neighbours.resolve(manager, pos);
+            for (var direction : SUPPLYING_DIRECTIONS) {
+                var consumer = neighbours.get(direction);
+                if (consumer != null) {
+                    consumer.receiveOffer(forked);
+                    countForwarded(statistics, consumer, energyOffer, forked);
+                }
+            }
+            return;
+        }
         for (var direction : SUPPLYING_DIRECTIONS) {
-            var neighborPos = pos.offset(direction);
-            var neighbor = world.getBlockEntity(neighborPos);
+            var neighbor = manager.getEnergyBlock(BlockPos.offset(pos, direction));
             if (neighbor instanceof EnergyConsumer consumer) {
                 var opposite = direction.getOpposite();
                 if (consumer.isConsumeFrom(opposite)) {
                     consumer.receiveOffer(forked);
+                    countForwarded(statistics, consumer, energyOffer, forked);
                 }
             }
         }
     }
 
+    private static void countForwarded(@Nullable EnergyStatistics statistics,
+                                       @NotNull EnergyConsumer consumer,
+                                       @NotNull EnergyOffer energyOffer,
+                                       @NotNull EnergyOffer forked) {
+        countForwarded(statistics, consumer, energyOffer.getEnergyAmount().getRaw(), forked.getEnergyAmount().getRaw());
+    }
+
+    private static void countForwarded(@Nullable EnergyStatistics statistics,
+                                       @NotNull EnergyConsumer consumer,
+                                       long offered,
+                                       long forwarded) {
+        if (statistics == null) {
+            return;
+        }
+        statistics.addOffersForwarded(1);
+        statistics.addEnergyLost(offered - forwarded);
+        if (!(consumer instanceof EnergyCable)) {
+            statistics.addEnergyDelivered(forwarded);
+        }
+    }
+
     @NotNull
-    private static Map<EnergySupplier, EnergyOffer> getMostValuableOffers(@NotNull Set<EnergyOffer> energyOffers) {
+    static Map<EnergySupplier, EnergyOffer> getMostValuableOffers(@NotNull Set<EnergyOffer> energyOffers) {
         Map<EnergySupplier, EnergyOffer> mostValuableOffers = new HashMap<>();
         for (var energyOffer : energyOffers) {
             var source = energyOffer.getSource();
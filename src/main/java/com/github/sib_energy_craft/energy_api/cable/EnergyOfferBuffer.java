@@ -0,0 +1,154 @@
+package com.github.sib_energy_craft.energy_api.cable;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of energy offers of cable.<br/>
+ * Buffer stores offers as pairs of offer and raw energy amount, see {@link Energy#getRaw()},
+ * and keeps only the most valuable offer of each supplier, so reduction is done on insertion.<br/>
+ * Buffer consists of two parts: incoming offers, that received since last {@link #flip()},
+ * and current offers, that should be proceeded on this tick.
+ * Both parts reused between ticks, so buffer does not allocate memory in steady state.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyOfferBuffer {
+    private Offers incoming = new Offers();
+    private Offers current = new Offers();
+
+    /**
+     * Put offer into incoming offers
+     *
+     * @param offer energy offer
+     */
+    public void offer(@NotNull EnergyOffer offer) {
+        incoming.put(offer, offer.getEnergyAmount().getRaw());
+    }
+
+    /**
+     * Put offer with passed energy amount into incoming offers.<br/>
+     * Passed offer used only as source of supplier and base energy amount.
+     *
+     * @param offer energy offer
+     * @param energyAmount raw offered energy amount
+     */
+    public void offer(@NotNull EnergyOffer offer, long energyAmount) {
+        if (energyAmount <= 0) {
+            return;
+        }
+        incoming.put(offer, energyAmount);
+    }
+
+    /**
+     * Make incoming offers current and clear incoming part.<br/>
+     * Should be called once per tick before current offers processed.
+     */
+    public void flip() {
+        var swap = current;
+        current = incoming;
+        incoming = swap;
+        incoming.clear();
+    }
+
+    /**
+     * Get amount of current offers
+     *
+     * @return amount of offers
+     */
+    public int size() {
+        return current.size;
+    }
+
+    /**
+     * Get current offer by index
+     *
+     * @param index offer index
+     * @return energy offer
+     */
+    @NotNull
+    public EnergyOffer getOffer(int index) {
+        return current.offers[index];
+    }
+
+    /**
+     * Get raw energy amount of current offer by index
+     *
+     * @param index offer index
+     * @return raw energy amount
+     */
+    public long getEnergyAmount(int index) {
+        return current.amounts[index];
+    }
+
+    /**
+     * Offers with open addressing index by supplier identity
+     */
+    private static final class Offers {
+        private EnergyOffer[] offers = new EnergyOffer[4];
+        private long[] amounts = new long[4];
+        /**
+         * Offer index + 1 by supplier hash, 0 - empty slot
+         */
+        private int[] table = new int[8];
+        private int size;
+
+        private void put(@NotNull EnergyOffer offer, long amount) {
+            var source = offer.getSource();
+            int mask = table.length - 1;
+            int slot = hash(source) & mask;
+            int index;
+            while ((index = table[slot]) != 0) {
+                if (offers[index - 1].getSource() == source) {
+                    if (amounts[index - 1] < amount) {
+                        offers[index - 1] = offer;
+                        amounts[index - 1] = amount;
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == offers.length) {
+                offers = Arrays.copyOf(offers, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            offers[size] = offer;
+            amounts[size] = amount;
+            table[slot] = ++size;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = hash(offers[i].getSource()) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+        }
+
+        private void clear() {
+            if (size == 0) {
+                return;
+            }
+            Arrays.fill(offers, 0, size, null);
+            Arrays.fill(table, 0);
+            size = 0;
+        }
+
+        private static int hash(@NotNull EnergySupplier source) {
+            int hash = System.identityHashCode(source);
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -14,6 +14,12 @@ import java.math.RoundingMode;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Constants {
     public static final int ENERGY_PRECISION = 10;
+    /**
+     * Fixed-point scale of raw energy amounts, equals to 10^{@link #ENERGY_PRECISION}
+     *
+     * @since 0.0.5
+     */
+    public static final long ENERGY_SCALE = BigDecimal.ONE.movePointRight(ENERGY_PRECISION).longValueExact();
 
     public static final BigDecimal ACCURATE_ZERO = accurate(BigDecimal.ZERO);
     public static final BigDecimal ACCURATE_ONE = accurate(BigDecimal.ONE);
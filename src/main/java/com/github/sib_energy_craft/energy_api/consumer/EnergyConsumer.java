@@ -1,8 +1,11 @@
 package com.github.sib_energy_craft.energy_api.consumer;
 
+import com.github.sib_energy_craft.energy_api.Energy;
 import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.EnergyOfferBatch;
 import net.minecraft.util.math.Direction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Energy consumer - awaiting energy offers and accept it if needed.<br/>
@@ -29,4 +32,45 @@ public interface EnergyConsumer {
      * @param energyOffer offered energy
      */
     void receiveOffer(@NotNull EnergyOffer energyOffer);
+
+    /**
+     * The method called by energy network once per tick with all offers to consumer.<br/>
+     * Consumer can mark wanted offers by {@link EnergyOfferBatch#accept(int)} and settle them
+     * by one {@link EnergyOfferBatch#settle()} call, right away or on its own tick.<br/>
+     * By default every offer passed to {@link #receiveOffer(EnergyOffer)}.
+     *
+     * @param batch offers batch, valid until next energy delivery to consumer
+     * @since 0.0.5
+     */
+    default void receiveOffers(@NotNull EnergyOfferBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            receiveOffer(batch.getOffer(i));
+        }
+    }
+
+    /**
+     * Get amount of energy, that consumer wants to receive on current tick.<br/>
+     * Used by energy network distribution policies, see {@link com.github.sib_energy_craft.energy_api.network.EnergyDistributionPolicy}.
+     * Called once per tick before offers delivered.
+     * By default consumer doesn't declare demand and receives all offers.
+     *
+     * @return wanted energy or null
+     * @since 0.0.5
+     */
+    @Nullable
+    default Energy getEnergyDemand() {
+        return null;
+    }
+
+    /**
+     * Get energy priority of consumer.<br/>
+     * Used by {@link com.github.sib_energy_craft.energy_api.network.EnergyDistributionPolicy#PRIORITY},
+     * consumers with higher priority receive energy first.
+     *
+     * @return energy priority
+     * @since 0.0.5
+     */
+    default int getEnergyPriority() {
+        return 0;
+    }
 }
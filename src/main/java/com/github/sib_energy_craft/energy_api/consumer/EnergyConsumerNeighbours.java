@@ -0,0 +1,98 @@
+package com.github.sib_energy_craft.energy_api.consumer;
+
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache of neighbour energy consumers of block.<br/>
+ * Cache resolves neighbour consumers, that can consume from the block side, once
+ * and reuses them on every tick without world lookups.
+ * Neighbours are resolved from chunk index of energy blocks, see {@link EnergyNetworks#getEnergyBlock(World, BlockPos)},
+ * so consumers in not loaded chunks are not looked up.<br/>
+ * Cache is invalidated when energy block is loaded or unloaded or chunk is frozen or unfrozen near the block,
+ * see {@link EnergyNetworks#getPlacementVersion(ServerWorld, BlockPos)}, on client world neighbours are resolved every time.<br/>
+ * Block should call {@link #invalidate()} on neighbour update, if it can change consuming sides of neighbours.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyConsumerNeighbours {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final EnergyConsumer[] consumers = new EnergyConsumer[DIRECTIONS.length];
+    private long version;
+    private boolean resolved;
+
+    /**
+     * Resolve neighbour consumers if cache is not valid
+     *
+     * @param world game world
+     * @param pos block position
+     * @return resolved cache
+     */
+    @NotNull
+    public EnergyConsumerNeighbours resolve(@NotNull World world, @NotNull BlockPos pos) {
+        if (world instanceof ServerWorld serverWorld) {
+            return resolve(EnergyNetworks.get(serverWorld), pos.asLong());
+        }
+        var neighbourPos = new BlockPos.Mutable();
+        for (var direction : DIRECTIONS) {
+            neighbourPos.set(pos, direction);
+            set(direction, world.getBlockEntity(neighbourPos));
+        }
+        return this;
+    }
+
+    /**
+     * Resolve neighbour consumers from chunk index of energy blocks manager, if cache is not valid
+     *
+     * @param manager energy blocks manager of block world
+     * @param pos packed block position
+     * @return resolved cache
+     */
+    @NotNull
+    public EnergyConsumerNeighbours resolve(@NotNull EnergyNetworkManager manager, long pos) {
+        long currentVersion = manager.getPlacementVersion(pos);
+        if (resolved && version == currentVersion) {
+            return this;
+        }
+        for (var direction : DIRECTIONS) {
+            set(direction, manager.getEnergyBlock(BlockPos.offset(pos, direction)));
+        }
+        version = currentVersion;
+        resolved = true;
+        return this;
+    }
+
+    private void set(@NotNull Direction direction, @Nullable Object neighbour) {
+        if (neighbour instanceof EnergyConsumer consumer && consumer.isConsumeFrom(direction.getOpposite())) {
+            consumers[direction.getId()] = consumer;
+        } else {
+            consumers[direction.getId()] = null;
+        }
+    }
+
+    /**
+     * Get neighbour consumer, that can consume energy from block side
+     *
+     * @param direction direction from block to neighbour
+     * @return consumer or null
+     */
+    @Nullable
+    public EnergyConsumer get(@NotNull Direction direction) {
+        return consumers[direction.getId()];
+    }
+
+    /**
+     * Invalidate cache, neighbours will be resolved on next call of {@link #resolve(World, BlockPos)}
+     */
+    public void invalidate() {
+        resolved = false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+/**
+ * Policy of energy distribution between chargeable item stacks, used by {@link InventoryCharger}
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public enum ChargePolicy {
+    /**
+     * Stacks are charged or discharged one by one in slots order
+     */
+    FILL_FIRST,
+    /**
+     * Energy divided equally between stacks, indivisible rest is given in turn starting from next stack on every call
+     */
+    ROUND_ROBIN,
+    /**
+     * Energy divided proportionally to free space on charge and to charge on discharge,
+     * indivisible rest is given in slots order
+     */
+    PROPORTIONAL
+}
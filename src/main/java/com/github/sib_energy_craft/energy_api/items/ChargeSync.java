@@ -0,0 +1,141 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import com.github.sib_energy_craft.energy_api.utils.Identifiers;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sync of deferred charge of chargeable items.<br/>
+ * Charge of items with {@link ChargeableItem#isChargeDeferred()} is not written to NBT on every change,
+ * so vanilla doesn't resync whole stack every tick. Instead, charge of current screen slots is sent to player
+ * by dedicated channel not more often than every {@link #SYNC_INTERVAL} ticks and only if it's changed.<br/>
+ * Pending charge is written to NBT every {@link #FLUSH_INTERVAL} ticks, on player disconnect, on chunk and world unload
+ * and on server stop. Besides, pending charge of stack is written before stack is saved and carried to stack copies,
+ * see {@link #onSave(ItemStack)} and {@link #onCopy(ItemStack, ItemStack)}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ChargeSync {
+    /**
+     * Channel of charge updates
+     */
+    public static final Identifier CHANNEL = Identifiers.of("charge_sync");
+    /**
+     * Ticks between charge updates of one player
+     */
+    public static final int SYNC_INTERVAL = 4;
+    /**
+     * Ticks between writes of pending charge, divides vanilla autosave interval
+     */
+    public static final int FLUSH_INTERVAL = 100;
+
+    private static final Map<UUID, ChargeTracker> TRACKERS = new HashMap<>();
+    private static int tick;
+
+    /**
+     * Write pending charge of all stacks to NBT.<br/>
+     * Should be called from server thread before stacks are saved or copied outside of save points.
+     */
+    public static void flush() {
+        DeferredCharges.flush();
+    }
+
+    /**
+     * Carry pending charge of stack to its copy.<br/>
+     * Called on every stack copy, so stack, that is copied or split out of its slot, keeps not written charge.
+     *
+     * @param itemStack original stack
+     * @param copy copy of stack
+     */
+    public static void onCopy(@NotNull ItemStack itemStack, @NotNull ItemStack copy) {
+        DeferredCharges.copy(itemStack, copy);
+    }
+
+    /**
+     * Write pending charge of stack to NBT.<br/>
+     * Called before stack is written to NBT, so saved stack has actual charge.
+     *
+     * @param itemStack item stack
+     */
+    public static void onSave(@NotNull ItemStack itemStack) {
+        DeferredCharges.write(itemStack);
+    }
+
+    /**
+     * Register deferred charge events
+     */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> DeferredCharges.setOwner(server.getThread()));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            DeferredCharges.flush();
+            DeferredCharges.setOwner(null);
+            TRACKERS.clear();
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> DeferredCharges.flush());
+        ServerWorldEvents.UNLOAD.register((server, world) -> DeferredCharges.flush());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            DeferredCharges.flush();
+            TRACKERS.remove(handler.player.getUuid());
+        });
+        // start tick event is invoked before server ticks counter increment and autosave of tick
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if ((server.getTicks() + 1) % FLUSH_INTERVAL == 0) {
+                DeferredCharges.flush();
+            }
+        });
+        ServerTickEvents.END_SERVER_TICK.register(ChargeSync::sync);
+    }
+
+    private static void sync(@NotNull MinecraftServer server) {
+        tick++;
+        for (var player : server.getPlayerManager().getPlayerList()) {
+            var tracker = TRACKERS.get(player.getUuid());
+            if (tracker == null) {
+                if (!ServerPlayNetworking.canSend(player, CHANNEL)) {
+                    continue;
+                }
+                tracker = new ChargeTracker(TRACKERS.size() % SYNC_INTERVAL);
+                TRACKERS.put(player.getUuid(), tracker);
+            }
+            if ((tick + tracker.phase) % SYNC_INTERVAL == 0) {
+                tracker.sync(player);
+            }
+        }
+    }
+
+    /**
+     * Encode signed value, so small negative values have short varint
+     *
+     * @param value signed value
+     * @return encoded value
+     */
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Decode value, encoded by {@link #zigZag(int)}
+     *
+     * @param value encoded value
+     * @return signed value
+     */
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
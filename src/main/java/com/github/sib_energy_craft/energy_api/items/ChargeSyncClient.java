@@ -0,0 +1,92 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Client receiver of {@link ChargeSync} updates.<br/>
+ * Receiver keeps mirror of charge of current screen slots, same as server tracker,
+ * applies received deltas to mirror and writes charge of changed slots to client stacks.<br/>
+ * Mirror is reset on join and disconnect, as server tracker of new connection starts from empty mirror.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@Environment(EnvType.CLIENT)
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ChargeSyncClient {
+    private static int syncId = -1;
+    private static int[] charges = new int[0];
+
+    /**
+     * Register charge updates receiver
+     */
+    public static void register() {
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(ChargeSyncClient::reset));
+        ClientPlayNetworking.registerGlobalReceiver(ChargeSync.CHANNEL, (client, handler, buf, responseSender) -> {
+            int updateSyncId = buf.readVarInt();
+            int changed = buf.readVarInt();
+            if (changed <= 0) {
+                return;
+            }
+            var slots = new int[changed];
+            var deltas = new int[changed];
+            int slot = -1;
+            for (int i = 0; i < changed; i++) {
+                slot += buf.readVarInt() + 1;
+                slots[i] = slot;
+                deltas[i] = ChargeSync.unZigZag(buf.readVarInt());
+            }
+            client.execute(() -> apply(client, updateSyncId, slots, deltas));
+        });
+    }
+
+    private static void reset() {
+        syncId = -1;
+        charges = new int[0];
+    }
+
+    private static void apply(@NotNull MinecraftClient client,
+                              int updateSyncId,
+                              @NotNull int[] slots,
+                              @NotNull int[] deltas) {
+        if (updateSyncId != syncId) {
+            syncId = updateSyncId;
+            Arrays.fill(charges, 0);
+        }
+        int last = slots[slots.length - 1];
+        if (last >= charges.length) {
+            charges = Arrays.copyOf(charges, last + 1);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            charges[slots[i]] += deltas[i];
+        }
+        var player = client.player;
+        if (player == null) {
+            return;
+        }
+        var screenHandler = player.currentScreenHandler;
+        if (screenHandler.syncId != syncId) {
+            return;
+        }
+        for (int slot : slots) {
+            if (slot >= screenHandler.slots.size()) {
+                continue;
+            }
+            var stack = screenHandler.slots.get(slot).getStack();
+            if (stack.getItem() instanceof ChargeableItem) {
+                DeferredCharges.writeCharge(stack, charges[slot]);
+            }
+        }
+    }
+}
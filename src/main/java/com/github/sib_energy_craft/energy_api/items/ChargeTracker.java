@@ -0,0 +1,80 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tracker of deferred charge, that player sees in current screen.<br/>
+ * Tracker mirrors charge of screen slots, that player client knows,
+ * and sends changed slots only, slot indices and charge as varint deltas.
+ * Mirror is reset when player opens other screen.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class ChargeTracker {
+    /**
+     * Tick offset of player sync, so players are synced on different ticks
+     */
+    final int phase;
+    private int syncId = -1;
+    private int[] charges = new int[0];
+    private ItemStack[] stacks = new ItemStack[0];
+    private int[] changedSlots = new int[0];
+    private int[] changedDeltas = new int[0];
+
+    ChargeTracker(int phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Send changed charge of current screen slots to player, nothing is sent if charge is not changed
+     *
+     * @param player player
+     */
+    void sync(@NotNull ServerPlayerEntity player) {
+        var handler = player.currentScreenHandler;
+        var slots = handler.slots;
+        int size = slots.size();
+        if (handler.syncId != syncId || charges.length != size) {
+            syncId = handler.syncId;
+            charges = new int[size];
+            stacks = new ItemStack[size];
+            changedSlots = new int[size];
+            changedDeltas = new int[size];
+        }
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            var stack = slots.get(i).getStack();
+            if (!(stack.getItem() instanceof ChargeableItem item) || !item.isChargeDeferred()) {
+                stacks[i] = null;
+                continue;
+            }
+            int charge = item.getCharge(stack);
+            if (charge == charges[i] && stack == stacks[i]) {
+                continue;
+            }
+            changedSlots[changed] = i;
+            changedDeltas[changed] = charge - charges[i];
+            changed++;
+            charges[i] = charge;
+            stacks[i] = stack;
+        }
+        if (changed == 0) {
+            return;
+        }
+        var buf = PacketByteBufs.create();
+        buf.writeVarInt(syncId);
+        buf.writeVarInt(changed);
+        int previous = -1;
+        for (int i = 0; i < changed; i++) {
+            buf.writeVarInt(changedSlots[i] - previous - 1);
+            buf.writeVarInt(ChargeSync.zigZag(changedDeltas[i]));
+            previous = changedSlots[i];
+        }
+        ServerPlayNetworking.send(player, ChargeSync.CHANNEL, buf);
+    }
+}
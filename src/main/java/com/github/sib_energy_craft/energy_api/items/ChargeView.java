@@ -0,0 +1,133 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import lombok.Getter;
+import net.minecraft.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cached view of chargeable item stack charge.<br/>
+ * View reads charge from stack once and keeps it in field, so hot loops of machines, batteries and tools
+ * can charge, discharge and check item without NBT lookups on every call.
+ * Changed charge is written back to stack by {@link #flush()}, that should be called before stack is saved or synced,
+ * usually at the end of the tick.<br/>
+ * View should not be kept between ticks, as stack NBT can be changed by other code.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class ChargeView {
+    @Getter
+    private final ItemStack itemStack;
+    @Getter
+    private final ChargeableItem item;
+    @Getter
+    private final int maxCharge;
+    @Getter
+    private int charge;
+    private boolean dirty;
+
+    private ChargeView(@NotNull ItemStack itemStack,
+                       @NotNull ChargeableItem item) {
+        this.itemStack = itemStack;
+        this.item = item;
+        this.maxCharge = item.getMaxCharge();
+        this.charge = item.getCharge(itemStack);
+    }
+
+    /**
+     * Create charge view of item stack
+     *
+     * @param itemStack item stack
+     * @return charge view or null if item is not {@link ChargeableItem}
+     */
+    @Nullable
+    public static ChargeView of(@NotNull ItemStack itemStack) {
+        if (itemStack.getItem() instanceof ChargeableItem chargeableItem) {
+            return new ChargeView(itemStack, chargeableItem);
+        }
+        return null;
+    }
+
+    /**
+     * Get energy free space
+     *
+     * @return free space
+     */
+    public int getFreeSpace() {
+        return maxCharge - charge;
+    }
+
+    /**
+     * Check that item is not fully charged
+     *
+     * @return true - has free space, false - otherwise
+     */
+    public boolean hasFreeSpace() {
+        return maxCharge > charge;
+    }
+
+    /**
+     * Check that item has any energy
+     *
+     * @return true - has energy, false - otherwise
+     */
+    public boolean hasEnergy() {
+        return charge > 0;
+    }
+
+    /**
+     * Add charge to item, item use only required amount of energy
+     *
+     * @param energy energy for charge
+     * @return not used energy
+     */
+    public int charge(int energy) {
+        int used = Math.min(maxCharge - charge, energy);
+        if (used != 0) {
+            charge += used;
+            dirty = true;
+        }
+        return energy - used;
+    }
+
+    /**
+     * Remove charge from item, item discharges only in case if it has required amount of energy
+     *
+     * @param energy energy for discharge
+     * @return true - energy discharged, false - otherwise
+     */
+    public boolean discharge(int energy) {
+        if (charge < energy) {
+            return false;
+        }
+        if (energy != 0) {
+            charge -= energy;
+            dirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * Set item charge
+     *
+     * @param charge amount of energy
+     */
+    public void setCharge(int charge) {
+        var value = Math.min(maxCharge, charge);
+        if (this.charge != value) {
+            this.charge = value;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Write changed charge to item stack
+     */
+    public void flush() {
+        if (dirty) {
+            item.setCharge(itemStack, charge);
+            dirty = false;
+        }
+    }
+}
@@ -14,7 +14,10 @@ import java.util.List;
  * Interface that add ability to charge items.<br/>
  * Chargeable item has two fields:<br/>
  * - charge - amount of having energy</br>
- * - maxCharge - max amount of item energy
+ * - maxCharge - max amount of item energy<br/>
+ * Hot loops, that charge or discharge item several times per tick, should use {@link ChargeView}.<br/>
+ * Items, that are charged or discharged every tick, e.g. armor or batteries, can defer charge NBT writes
+ * by {@link #isChargeDeferred()}, then charge is synced to clients by {@link ChargeSync}.
  *
  * @since 0.0.1
  * @author sibmaks
@@ -32,6 +35,18 @@ public interface ChargeableItem {
      */
     int getMaxCharge();
 
+    /**
+     * Is NBT write of charge deferred.<br/>
+     * Deferred charge is written to NBT on significant change or at save points,
+     * between that charge is kept in memory and sent to players as compact deltas by {@link ChargeSync}.
+     * Copy of stack gets pending charge of original, saved stack has actual charge in NBT.
+     *
+     * @return true - charge write is deferred, false - charge written on every change
+     */
+    default boolean isChargeDeferred() {
+        return false;
+    }
+
     /**
      * Get energy free space.<br/>
      * Should be between 0 and max charge.<br/>
@@ -52,8 +67,13 @@ public interface ChargeableItem {
      * @return item charge
      */
     default int getCharge(@NotNull ItemStack itemStack) {
-        var nbt = itemStack.getNbt();
-        return nbt != null ? nbt.getInt(CHARGE) : 0;
+        if (isChargeDeferred()) {
+            var charge = DeferredCharges.get(itemStack);
+            if (charge >= 0) {
+                return charge;
+            }
+        }
+        return DeferredCharges.readCharge(itemStack);
     }
 
     /**
@@ -88,7 +108,9 @@ public interface ChargeableItem {
     default int charge(@NotNull ItemStack itemStack, int energy) {
         int charge = getCharge(itemStack);
         int used = Math.min(getMaxCharge() - charge, energy);
-        setCharge(itemStack, charge + used);
+        if(used != 0) {
+            setCharge(itemStack, charge + used);
+        }
         return energy - used;
     }
 
@@ -100,12 +122,16 @@ public interface ChargeableItem {
      * @param charge amount of energy
      */
     default void setCharge(@NotNull ItemStack itemStack, int charge) {
-        if(itemStack.getItem() instanceof ChargeableItem chargeableItem) {
-            var nbt = itemStack.getOrCreateNbt();
-            nbt.putInt(CHARGE, Math.min(chargeableItem.getMaxCharge(), charge));
-        } else {
-            throw new IllegalArgumentException("Item must be Chargeable: %s".formatted(itemStack.getItem()));
+        var item = itemStack.getItem();
+        if(!(item instanceof ChargeableItem chargeableItem)) {
+            throw new IllegalArgumentException("Item must be Chargeable: %s".formatted(item));
         }
+        int maxCharge = chargeableItem.getMaxCharge();
+        int value = Math.min(maxCharge, charge);
+        if(chargeableItem.isChargeDeferred() && DeferredCharges.defer(itemStack, maxCharge, value)) {
+            return;
+        }
+        DeferredCharges.writeCharge(itemStack, value);
     }
 
     /**
@@ -122,7 +148,9 @@ public interface ChargeableItem {
         if(charge < energy) {
             return false;
         }
-        setCharge(itemStack, charge - energy);
+        if(energy != 0) {
+            setCharge(itemStack, charge - energy);
+        }
         return true;
     }
 
@@ -0,0 +1,157 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import com.google.common.collect.MapMaker;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.minecraft.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Pending charge of item stacks, which NBT write is deferred.<br/>
+ * Every NBT change of stack causes full stack resync by vanilla, so charge of items with {@link ChargeableItem#isChargeDeferred()}
+ * is kept in memory and written to NBT only on significant change: when charge differs from written one
+ * by {@link #SIGNIFICANT_STEPS} part of max charge or item becomes empty or full.
+ * The rest of pending charge is written on {@link #flush()}, at save points, and on {@link #write(ItemStack)},
+ * before stack is saved. Copy of stack gets pending charge of original by {@link #copy(ItemStack, ItemStack)},
+ * so stack, that is copied or split out of its slot, doesn't lose charge.<br/>
+ * Stacks are weak keys compared by identity, so dropped stacks don't leak.
+ * Charge is deferred on server thread only, other threads write charge to NBT directly.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class DeferredCharges {
+    /**
+     * Charge change, that is written to NBT immediately, is 1/64 of max charge
+     */
+    static final int SIGNIFICANT_STEPS = 64;
+
+    private static final Map<ItemStack, Pending> PENDING = new MapMaker()
+            .weakKeys()
+            .concurrencyLevel(1)
+            .makeMap();
+    private static volatile Thread owner;
+
+    /**
+     * Get pending charge of stack
+     *
+     * @param itemStack item stack
+     * @return pending charge or -1 if stack has no pending charge
+     */
+    static int get(@NotNull ItemStack itemStack) {
+        if (Thread.currentThread() != owner) {
+            return -1;
+        }
+        var pending = PENDING.get(itemStack);
+        return pending == null ? -1 : pending.charge;
+    }
+
+    /**
+     * Defer charge write of stack
+     *
+     * @param itemStack item stack
+     * @param maxCharge max charge of item
+     * @param charge new charge
+     * @return true - charge is deferred, false - charge should be written to NBT now
+     */
+    static boolean defer(@NotNull ItemStack itemStack, int maxCharge, int charge) {
+        if (Thread.currentThread() != owner) {
+            return false;
+        }
+        var pending = PENDING.get(itemStack);
+        int written = pending == null ? readCharge(itemStack) : pending.written;
+        if (charge <= 0 || charge >= maxCharge || Math.abs(charge - written) >= maxCharge / SIGNIFICANT_STEPS) {
+            if (pending != null) {
+                PENDING.remove(itemStack);
+            }
+            return false;
+        }
+        if (pending == null) {
+            PENDING.put(itemStack, new Pending(written, charge));
+        } else {
+            pending.charge = charge;
+        }
+        return true;
+    }
+
+    /**
+     * Carry pending charge of stack to its copy
+     *
+     * @param itemStack original stack
+     * @param copy copy of stack with the same NBT
+     */
+    static void copy(@NotNull ItemStack itemStack, @NotNull ItemStack copy) {
+        if (Thread.currentThread() != owner || copy.isEmpty()) {
+            return;
+        }
+        var pending = PENDING.get(itemStack);
+        if (pending != null) {
+            PENDING.put(copy, new Pending(pending.written, pending.charge));
+        }
+    }
+
+    /**
+     * Write pending charge of stack to NBT
+     *
+     * @param itemStack item stack
+     */
+    static void write(@NotNull ItemStack itemStack) {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+        var pending = PENDING.remove(itemStack);
+        if (pending != null) {
+            writeCharge(itemStack, pending.charge);
+        }
+    }
+
+    /**
+     * Write pending charge of all stacks to NBT.<br/>
+     * Pending charge is owned by server thread, so call from other threads does nothing.
+     */
+    static void flush() {
+        if (Thread.currentThread() != owner || PENDING.isEmpty()) {
+            return;
+        }
+        for (var entry : PENDING.entrySet()) {
+            writeCharge(entry.getKey(), entry.getValue().charge);
+        }
+        PENDING.clear();
+    }
+
+    /**
+     * Set thread, that defers charge writes
+     *
+     * @param thread server thread or null to stop deferring
+     */
+    static void setOwner(@Nullable Thread thread) {
+        owner = thread;
+    }
+
+    static int readCharge(@NotNull ItemStack itemStack) {
+        var nbt = itemStack.getNbt();
+        return nbt != null ? nbt.getInt(ChargeableItem.CHARGE) : 0;
+    }
+
+    static void writeCharge(@NotNull ItemStack itemStack, int charge) {
+        var nbt = itemStack.getOrCreateNbt();
+        nbt.putInt(ChargeableItem.CHARGE, charge);
+    }
+
+    private static final class Pending {
+        /**
+         * Charge, that is written to stack NBT
+         */
+        private final int written;
+        private int charge;
+
+        private Pending(int written, int charge) {
+            this.written = written;
+            this.charge = charge;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.constants.Constants;
+import lombok.Getter;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.slot.Slot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bulk charge and discharge engine of chargeable item stacks.<br/>
+ * Engine reads charge of every chargeable stack once, distributes energy between stacks by {@link ChargePolicy}
+ * and writes changed charge once per stack, inventory marked dirty once per call.<br/>
+ * Only integer part of energy can be stored in items, so fractional part of energy always returned as remainder.<br/>
+ * Charger reuses internal buffers between calls and should be kept per block entity, it is not thread safe.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class InventoryCharger {
+    @Getter
+    private final ChargePolicy policy;
+    private ItemStack[] stacks = new ItemStack[16];
+    private ChargeableItem[] items = new ChargeableItem[16];
+    private Inventory[] inventories = new Inventory[16];
+    private int[] charges = new int[16];
+    private int[] limits = new int[16];
+    private int[] amounts = new int[16];
+    private int size;
+    /**
+     * Index of stack, that receives next indivisible unit on round-robin distribution
+     */
+    private int cursor;
+
+    /**
+     * Create inventory charger
+     *
+     * @param policy energy distribution policy
+     */
+    public InventoryCharger(@NotNull ChargePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Charge all chargeable stacks of inventory
+     *
+     * @param inventory inventory
+     * @param energy energy for charge
+     * @return not used energy
+     */
+    @NotNull
+    public Energy charge(@NotNull Inventory inventory, @NotNull Energy energy) {
+        return charge(inventory, 0, inventory.size(), energy);
+    }
+
+    /**
+     * Charge chargeable stacks of inventory slots range
+     *
+     * @param inventory inventory
+     * @param from first slot index, inclusive
+     * @param to last slot index, exclusive
+     * @param energy energy for charge
+     * @return not used energy
+     */
+    @NotNull
+    public Energy charge(@NotNull Inventory inventory, int from, int to, @NotNull Energy energy) {
+        try {
+            for (int slot = from; slot < to; slot++) {
+                collect(inventory, inventory.getStack(slot), true);
+            }
+            return energy.subtract(transfer(energy, true));
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Charge chargeable stacks of slots, e.g. {@link com.github.sib_energy_craft.energy_api.screen.ChargeSlot}
+     *
+     * @param slots slots
+     * @param energy energy for charge
+     * @return not used energy
+     */
+    @NotNull
+    public Energy charge(@NotNull List<? extends Slot> slots, @NotNull Energy energy) {
+        try {
+            for (var slot : slots) {
+                collect(slot.inventory, slot.getStack(), true);
+            }
+            return energy.subtract(transfer(energy, true));
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Discharge all chargeable stacks of inventory
+     *
+     * @param inventory inventory
+     * @param energy requested energy
+     * @return discharged energy, not greater than requested
+     */
+    @NotNull
+    public Energy discharge(@NotNull Inventory inventory, @NotNull Energy energy) {
+        return discharge(inventory, 0, inventory.size(), energy);
+    }
+
+    /**
+     * Discharge chargeable stacks of inventory slots range
+     *
+     * @param inventory inventory
+     * @param from first slot index, inclusive
+     * @param to last slot index, exclusive
+     * @param energy requested energy
+     * @return discharged energy, not greater than requested
+     */
+    @NotNull
+    public Energy discharge(@NotNull Inventory inventory, int from, int to, @NotNull Energy energy) {
+        try {
+            for (int slot = from; slot < to; slot++) {
+                collect(inventory, inventory.getStack(slot), false);
+            }
+            return transfer(energy, false);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Discharge chargeable stacks of slots, e.g. {@link com.github.sib_energy_craft.energy_api.screen.ChargeSlot}
+     *
+     * @param slots slots
+     * @param energy requested energy
+     * @return discharged energy, not greater than requested
+     */
+    @NotNull
+    public Energy discharge(@NotNull List<? extends Slot> slots, @NotNull Energy energy) {
+        try {
+            for (var slot : slots) {
+                collect(slot.inventory, slot.getStack(), false);
+            }
+            return transfer(energy, false);
+        } finally {
+            clear();
+        }
+    }
+
+    private void collect(@NotNull Inventory inventory, @NotNull ItemStack stack, boolean charging) {
+        if (stack.isEmpty() || !(stack.getItem() instanceof ChargeableItem item)) {
+            return;
+        }
+        int charge = item.getCharge(stack);
+        int limit = charging ? item.getMaxCharge() - charge : charge;
+        if (limit <= 0) {
+            return;
+        }
+        if (size == stacks.length) {
+            int capacity = size * 2;
+            stacks = Arrays.copyOf(stacks, capacity);
+            items = Arrays.copyOf(items, capacity);
+            inventories = Arrays.copyOf(inventories, capacity);
+            charges = Arrays.copyOf(charges, capacity);
+            limits = Arrays.copyOf(limits, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        stacks[size] = stack;
+        items[size] = item;
+        inventories[size] = inventory;
+        charges[size] = charge;
+        limits[size] = limit;
+        amounts[size] = 0;
+        size++;
+    }
+
+    /**
+     * Distribute integer part of energy between collected stacks and apply it
+     *
+     * @return transferred energy
+     */
+    @NotNull
+    private Energy transfer(@NotNull Energy energy, boolean charging) {
+        var budget = energy.getRaw() / Constants.ENERGY_SCALE;
+        if (size == 0 || budget == 0) {
+            return Energy.ZERO;
+        }
+        var transferred = switch (policy) {
+            case FILL_FIRST -> fillFirst(budget);
+            case ROUND_ROBIN -> roundRobin(budget);
+            case PROPORTIONAL -> proportional(budget);
+        };
+        Inventory dirty = null;
+        for (int i = 0; i < size; i++) {
+            int amount = amounts[i];
+            if (amount == 0) {
+                continue;
+            }
+            items[i].setCharge(stacks[i], charging ? charges[i] + amount : charges[i] - amount);
+            if (inventories[i] != dirty) {
+                dirty = inventories[i];
+                dirty.markDirty();
+            }
+        }
+        return Energy.ofRaw(transferred * Constants.ENERGY_SCALE);
+    }
+
+    private long fillFirst(long budget) {
+        var rest = budget;
+        for (int i = 0; i < size && rest > 0; i++) {
+            int amount = (int) Math.min(limits[i] - amounts[i], rest);
+            amounts[i] += amount;
+            rest -= amount;
+        }
+        return budget - rest;
+    }
+
+    private long roundRobin(long budget) {
+        var rest = budget;
+        int active = size;
+        while (rest > 0 && active > 0) {
+            var share = rest / active;
+            if (share == 0) {
+                break;
+            }
+            active = 0;
+            for (int i = 0; i < size; i++) {
+                int free = limits[i] - amounts[i];
+                if (free == 0) {
+                    continue;
+                }
+                int amount = (int) Math.min(free, share);
+                amounts[i] += amount;
+                rest -= amount;
+                if (amount < free) {
+                    active++;
+                }
+            }
+        }
+        if (rest > 0 && active > 0) {
+            // rest is less than amount of not filled stacks, so every stack gets at most one unit
+            int start = cursor % size;
+            for (int i = 0; i < size && rest > 0; i++) {
+                int index = (start + i) % size;
+                if (amounts[index] < limits[index]) {
+                    amounts[index]++;
+                    rest--;
+                    cursor = index + 1;
+                }
+            }
+        }
+        return budget - rest;
+    }
+
+    private long proportional(long budget) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += limits[i];
+        }
+        if (budget >= total) {
+            System.arraycopy(limits, 0, amounts, 0, size);
+            return total;
+        }
+        var rest = budget;
+        for (int i = 0; i < size; i++) {
+            long limit = limits[i];
+            var product = limit * budget;
+            long share;
+            if (Math.multiplyHigh(limit, budget) == 0 && product >= 0) {
+                share = product / total;
+            } else {
+                share = (long) ((double) limit / total * budget);
+            }
+            int amount = (int) Math.min(Math.min(share, limit), rest);
+            amounts[i] = amount;
+            rest -= amount;
+        }
+        var transferred = budget - rest;
+        if (rest > 0) {
+            transferred += fillFirst(rest);
+        }
+        return transferred;
+    }
+
+    private void clear() {
+        Arrays.fill(stacks, 0, size, null);
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(inventories, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.sib_energy_craft.energy_api.mixin;
+
+import com.github.sib_energy_craft.energy_api.items.ChargeSync;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Keeps deferred charge of chargeable items, when stack is copied or saved, see {@link ChargeSync}.<br/>
+ * Stack split is copy with other count, so it's covered by copy too.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@Mixin(ItemStack.class)
+public abstract class ItemStackMixin {
+
+    @Inject(method = "copy", at = @At("RETURN"))
+    private void copyPendingCharge(CallbackInfoReturnable<ItemStack> cir) {
+        ChargeSync.onCopy((ItemStack) (Object) this, cir.getReturnValue());
+    }
+
+    @Inject(method = "writeNbt", at = @At("HEAD"))
+    private void writePendingCharge(NbtCompound nbt, CallbackInfoReturnable<NbtCompound> cir) {
+        ChargeSync.onSave((ItemStack) (Object) this);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldEvents;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queue of overloaded cables of one world, that should burn out.<br/>
+ * Cables are not broken in the middle of energy tick, but collected and destroyed in batch at the end of server tick.
+ * Batch removes blocks without neighbour updates and then notifies neighbours once from each batch border block,
+ * so burned line of cables doesn't cause cascade of updates between cables of the same line.
+ * Graph nodes of burned cables are removed by block entity unload and applied to topology at once on next tick.<br/>
+ * Amount of cables burned per tick is limited, the rest burns on next ticks.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyBurnQueue {
+    /**
+     * Max amount of cables burned per tick
+     */
+    private static final int MAX_BURNS_PER_TICK = 64;
+
+    private final LongLinkedOpenHashSet queue = new LongLinkedOpenHashSet();
+    private final LongOpenHashSet batch = new LongOpenHashSet();
+    private final LongArrayList positions = new LongArrayList();
+    private final List<Block> blocks = new ArrayList<>();
+
+    /**
+     * Add cable to queue
+     *
+     * @param pos packed cable position
+     */
+    void add(long pos) {
+        queue.add(pos);
+    }
+
+    /**
+     * Check is cable waiting for burn out
+     *
+     * @param pos packed cable position
+     * @return true - cable in queue, false - otherwise
+     */
+    boolean contains(long pos) {
+        return queue.contains(pos);
+    }
+
+    /**
+     * Burn out queued cables, not more than {@link #MAX_BURNS_PER_TICK}.<br/>
+     * Cables of not loaded or frozen chunks and positions, that are not cables anymore, are dropped from queue.
+     *
+     * @param world game world
+     * @param manager network manager of world
+     */
+    void burn(@NotNull ServerWorld world, @NotNull EnergyNetworkManager manager) {
+        while (!queue.isEmpty() && positions.size() < MAX_BURNS_PER_TICK) {
+            var pos = queue.removeFirstLong();
+            if (manager.getEnergyBlock(pos) instanceof EnergyCable) {
+                positions.add(pos);
+                batch.add(pos);
+            } else {
+                manager.extinguish(pos);
+            }
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            var pos = BlockPos.fromLong(positions.getLong(i));
+            var state = world.getBlockState(pos);
+            world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(state));
+            world.setBlockState(pos, world.getFluidState(pos).getBlockState(), Block.NOTIFY_LISTENERS);
+            blocks.add(state.getBlock());
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            var pos = positions.getLong(i);
+            if (isBorder(pos)) {
+                world.updateNeighbors(BlockPos.fromLong(pos), blocks.get(i));
+            }
+        }
+        positions.clear();
+        batch.clear();
+        blocks.clear();
+    }
+
+    /**
+     * Check is any neighbour of burned block is not burned in the same batch
+     */
+    private boolean isBorder(long pos) {
+        for (var direction : EnergyNodeStore.DIRECTIONS) {
+            if (!batch.contains(BlockPos.offset(pos, direction))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Entry of per-chunk index of energy blocks.<br/>
+ * Entry keeps loaded energy block entities of chunk, updated on block entity load and unload,
+ * and graph nodes of chunk, updated when block changes applied to graph.<br/>
+ * Frozen chunk is loaded, but its blocks are not ticked, e.g. chunk on border of loaded area.
+ * Energy doesn't flow into, out of or through frozen chunk.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyChunk {
+    /**
+     * Packed chunk position
+     */
+    final long pos;
+    /**
+     * Energy blocks of chunk by packed block position
+     */
+    final Long2ObjectMap<Object> blocks = new Long2ObjectOpenHashMap<>();
+    private final EnergyNodeStore store;
+    /**
+     * Ids of graph nodes of chunk
+     */
+    private int[] nodes = new int[4];
+    private int nodeCount;
+    boolean frozen;
+    /**
+     * Version of energy blocks placement of chunk, unique in world, see {@link EnergyNetworkManager#getPlacementVersion(long)}
+     */
+    int version;
+
+    EnergyChunk(@NotNull EnergyNodeStore store, long pos, boolean frozen) {
+        this.store = store;
+        this.pos = pos;
+        this.frozen = frozen;
+    }
+
+    /**
+     * Get packed position of chunk, that contains block
+     *
+     * @param blockPos packed block position
+     * @return packed chunk position
+     */
+    static long toChunkPos(long blockPos) {
+        return ChunkPos.toLong(
+                ChunkSectionPos.getSectionCoord(BlockPos.unpackLongX(blockPos)),
+                ChunkSectionPos.getSectionCoord(BlockPos.unpackLongZ(blockPos))
+        );
+    }
+
+    void addNode(int id) {
+        if (nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+        }
+        store.chunks[id] = this;
+        store.chunkIndices[id] = nodeCount;
+        nodes[nodeCount++] = id;
+    }
+
+    void removeNode(int id) {
+        int index = store.chunkIndices[id];
+        int last = nodes[--nodeCount];
+        nodes[index] = last;
+        store.chunkIndices[last] = index;
+    }
+
+    /**
+     * Drop all graph nodes of chunk, energy blocks are kept
+     */
+    void clearNodes() {
+        nodeCount = 0;
+    }
+
+    /**
+     * Change frozen state of chunk, networks of chunk nodes will re-plan delivery on next tick
+     *
+     * @param frozen frozen state
+     * @return true - state is changed, false - otherwise
+     */
+    boolean setFrozen(boolean frozen) {
+        if (this.frozen == frozen) {
+            return false;
+        }
+        this.frozen = frozen;
+        for (int i = 0; i < nodeCount; i++) {
+            var network = store.networks[nodes[i]];
+            if (network != null) {
+                network.invalidatePlan();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check is chunk has no energy blocks and nodes, so entry can be dropped from index
+     *
+     * @return true - chunk is empty, false - otherwise
+     */
+    boolean isEmpty() {
+        return nodeCount == 0 && blocks.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+/**
+ * Policy of energy distribution between consumers of energy network.<br/>
+ * All policies except {@link #OFFER_ALL} work with consumers, that declare demand by
+ * {@link com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer#getEnergyDemand()}:
+ * network computes quota of every such consumer from aggregate supply and demand once per tick
+ * and offers of one supplier are given to one such consumer only, so consumers don't race for the same supplier.
+ * Consumers without demand receive all offers.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public enum EnergyDistributionPolicy {
+    /**
+     * Every consumer receives offers of every reachable supplier, first accepted offer wins
+     */
+    OFFER_ALL,
+    /**
+     * Consumers with higher priority are served first, consumers with the same priority share energy proportionally
+     */
+    PRIORITY,
+    /**
+     * Energy shared between consumers proportionally to their demand
+     */
+    FAIR_SHARE,
+    /**
+     * Consumers are served one by one, first served consumer changes every tick
+     */
+    ROUND_ROBIN
+}
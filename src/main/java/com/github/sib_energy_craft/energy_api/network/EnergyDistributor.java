@@ -0,0 +1,345 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Distributor of network offers between consumers by {@link EnergyDistributionPolicy}.<br/>
+ * Network collects offers of tick into distributor instead of consumer batches,
+ * distributor computes quota of each consumer from declared demand and aggregate supply
+ * and keeps offers, that consumers should receive. Offer of one supplier is kept for one managed consumer only.<br/>
+ * Offers are indivisible, so consumers first take offers that fit into quota,
+ * offers left unclaimed after that are given to consumers, that still need energy.<br/>
+ * Distributor is owned by network and reuses its arrays between ticks.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyDistributor {
+    private static final long UNMANAGED = -1;
+
+    private EnergyEndpoint[] entryNodes = new EnergyEndpoint[8];
+    private EnergyOffer[] entryOffers = new EnergyOffer[8];
+    private int[] entrySuppliers = new int[8];
+    private long[] entryAmounts = new long[8];
+    private long[] entryCosts = new long[8];
+    private int[] entryConsumers = new int[8];
+    private boolean[] kept = new boolean[8];
+    private int entryCount;
+
+    private EnergyEndpoint[] consumers = new EnergyEndpoint[4];
+    private long[] demands = new long[4];
+    private int[] priorities = new int[4];
+    private long[] quotas = new long[4];
+    private long[] received = new long[4];
+    private long[] order = new long[4];
+    private long[] rotated = new long[4];
+    /**
+     * Entries grouped by consumer, group of consumer starts at {@link #consumerStarts}
+     */
+    private int[] consumerStarts = new int[5];
+    private int[] groupedEntries = new int[8];
+    private int consumerCount;
+
+    private boolean[] claimed = new boolean[0];
+    private int cursor;
+
+    /**
+     * Add offer, that network delivers to consumer
+     *
+     * @param node consumer node
+     * @param offer energy offer
+     * @param supplier index of supplier in network
+     * @param amount amount of offer
+     * @param cost cost of path from supplier to consumer
+     */
+    void add(@NotNull EnergyEndpoint node,
+             @NotNull EnergyOffer offer,
+             int supplier,
+             long amount,
+             long cost) {
+        if (entryCount == entryNodes.length) {
+            int length = entryCount * 2;
+            entryNodes = Arrays.copyOf(entryNodes, length);
+            entryOffers = Arrays.copyOf(entryOffers, length);
+            entrySuppliers = Arrays.copyOf(entrySuppliers, length);
+            entryAmounts = Arrays.copyOf(entryAmounts, length);
+            entryCosts = Arrays.copyOf(entryCosts, length);
+            entryConsumers = Arrays.copyOf(entryConsumers, length);
+            kept = Arrays.copyOf(kept, length);
+        }
+        int consumer = node.distributionIndex;
+        if (consumer < 0) {
+            consumer = register(node);
+        }
+        entryNodes[entryCount] = node;
+        entryOffers[entryCount] = offer;
+        entrySuppliers[entryCount] = supplier;
+        entryAmounts[entryCount] = amount;
+        entryCosts[entryCount] = cost;
+        entryConsumers[entryCount] = consumer;
+        entryCount++;
+    }
+
+    private int register(@NotNull EnergyEndpoint node) {
+        if (consumerCount == consumers.length) {
+            int length = consumerCount * 2;
+            consumers = Arrays.copyOf(consumers, length);
+            demands = Arrays.copyOf(demands, length);
+            priorities = Arrays.copyOf(priorities, length);
+            quotas = Arrays.copyOf(quotas, length);
+            received = Arrays.copyOf(received, length);
+            order = Arrays.copyOf(order, length);
+            rotated = new long[length];
+            consumerStarts = Arrays.copyOf(consumerStarts, length + 1);
+        }
+        var consumer = node.consumer;
+        var demand = consumer == null ? null : consumer.getEnergyDemand();
+        int index = consumerCount++;
+        consumers[index] = node;
+        demands[index] = demand == null ? UNMANAGED : Math.max(0, demand.getRaw());
+        priorities[index] = demand == null ? 0 : consumer.getEnergyPriority();
+        received[index] = 0;
+        node.distributionIndex = index;
+        return index;
+    }
+
+    /**
+     * Check is distributor has collected offers
+     *
+     * @return true - has offers, false - otherwise
+     */
+    boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    /**
+     * Distribute collected offers, after that kept offers are available by {@link #isKept(int)}
+     *
+     * @param policy distribution policy
+     * @param offerAmounts amounts of offers, indexed by supplier
+     * @param supplierCount amount of suppliers in network
+     */
+    void distribute(@NotNull EnergyDistributionPolicy policy,
+                    @NotNull long[] offerAmounts,
+                    int supplierCount) {
+        if (claimed.length < supplierCount) {
+            claimed = new boolean[supplierCount];
+        }
+        group();
+        long supply = 0;
+        long demand = 0;
+        for (int i = 0; i < entryCount; i++) {
+            int supplier = entrySuppliers[i];
+            if (demands[entryConsumers[i]] != UNMANAGED && !claimed[supplier]) {
+                claimed[supplier] = true;
+                supply = Energy.addRaw(supply, offerAmounts[supplier]);
+            }
+        }
+        Arrays.fill(claimed, 0, supplierCount, false);
+        int managed = 0;
+        for (int c = 0; c < consumerCount; c++) {
+            if (demands[c] != UNMANAGED) {
+                demand = Energy.addRaw(demand, demands[c]);
+                order[managed++] = c;
+            }
+        }
+        if (managed == 0) {
+            Arrays.fill(kept, 0, entryCount, true);
+            return;
+        }
+        if (supply >= demand) {
+            System.arraycopy(demands, 0, quotas, 0, consumerCount);
+        } else if (policy == EnergyDistributionPolicy.PRIORITY) {
+            prioritize(managed, supply);
+        } else if (policy == EnergyDistributionPolicy.ROUND_ROBIN) {
+            rotate(managed, supply);
+        } else {
+            share(0, managed, supply, demand);
+        }
+        for (int i = 0; i < entryCount; i++) {
+            kept[i] = demands[entryConsumers[i]] == UNMANAGED;
+        }
+        for (int o = 0; o < managed; o++) {
+            claim((int) order[o], true);
+        }
+        int first = policy == EnergyDistributionPolicy.FAIR_SHARE ? nextCursor(managed) : 0;
+        for (int o = 0; o < managed; o++) {
+            claim((int) order[(first + o) % managed], false);
+        }
+        Arrays.fill(claimed, 0, supplierCount, false);
+    }
+
+    /**
+     * Group entries by consumer by counting sort, entries of consumer stay in supplier order
+     */
+    private void group() {
+        Arrays.fill(consumerStarts, 0, consumerCount + 1, 0);
+        for (int i = 0; i < entryCount; i++) {
+            consumerStarts[entryConsumers[i] + 1]++;
+        }
+        for (int c = 0; c < consumerCount; c++) {
+            consumerStarts[c + 1] += consumerStarts[c];
+        }
+        if (groupedEntries.length < entryCount) {
+            groupedEntries = new int[entryNodes.length];
+        }
+        for (int i = 0; i < entryCount; i++) {
+            int consumer = entryConsumers[i];
+            groupedEntries[consumerStarts[consumer]++] = i;
+        }
+        for (int c = consumerCount; c > 0; c--) {
+            consumerStarts[c] = consumerStarts[c - 1];
+        }
+        consumerStarts[0] = 0;
+    }
+
+    /**
+     * Claim offers of consumer.<br/>
+     * First pass takes offers, that fit into consumer quota, second pass takes unclaimed offers while consumer needs energy.
+     */
+    private void claim(int consumer, boolean fit) {
+        var limit = fit ? quotas[consumer] : demands[consumer];
+        for (int g = consumerStarts[consumer]; g < consumerStarts[consumer + 1]; g++) {
+            var current = received[consumer];
+            if (current >= limit) {
+                return;
+            }
+            int entry = groupedEntries[g];
+            int supplier = entrySuppliers[entry];
+            var energy = entryAmounts[entry] - entryCosts[entry];
+            if (claimed[supplier] || (fit && current + energy > limit)) {
+                continue;
+            }
+            claimed[supplier] = true;
+            kept[entry] = true;
+            received[consumer] = current + energy;
+        }
+    }
+
+    /**
+     * Consumers are served by descending priority, consumers of the same priority share energy of their tier
+     */
+    private void prioritize(int managed, long supply) {
+        for (int o = 0; o < managed; o++) {
+            int consumer = (int) order[o];
+            order[o] = ((long) Integer.MAX_VALUE - priorities[consumer]) << 31 | consumer;
+        }
+        Arrays.sort(order, 0, managed);
+        for (int o = 0; o < managed; o++) {
+            order[o] &= Integer.MAX_VALUE;
+        }
+        var rest = supply;
+        int from = 0;
+        while (from < managed) {
+            var priority = priorities[(int) order[from]];
+            int to = from;
+            long tierDemand = 0;
+            while (to < managed && priorities[(int) order[to]] == priority) {
+                tierDemand = Energy.addRaw(tierDemand, demands[(int) order[to]]);
+                to++;
+            }
+            if (rest >= tierDemand) {
+                for (int o = from; o < to; o++) {
+                    int consumer = (int) order[o];
+                    quotas[consumer] = demands[consumer];
+                }
+                rest -= tierDemand;
+            } else {
+                share(from, to, rest, tierDemand);
+                rest = 0;
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Consumers are filled one by one, first consumer changes every tick
+     */
+    private void rotate(int managed, long supply) {
+        int first = nextCursor(managed);
+        System.arraycopy(order, 0, rotated, 0, managed);
+        var rest = supply;
+        for (int o = 0; o < managed; o++) {
+            int consumer = (int) rotated[(first + o) % managed];
+            order[o] = consumer;
+            var quota = Math.min(demands[consumer], rest);
+            quotas[consumer] = quota;
+            rest -= quota;
+        }
+    }
+
+    /**
+     * Get first served consumer of tick, so indivisible offers are not given to the same consumer every tick
+     */
+    private int nextCursor(int managed) {
+        int first = cursor % managed;
+        cursor = first + 1;
+        return first;
+    }
+
+    /**
+     * Share supply between consumers proportionally to demand
+     */
+    private void share(int from, int to, long supply, long demand) {
+        for (int o = from; o < to; o++) {
+            int consumer = (int) order[o];
+            long consumerDemand = demands[consumer];
+            var product = consumerDemand * supply;
+            if (Math.multiplyHigh(consumerDemand, supply) == 0 && product >= 0) {
+                quotas[consumer] = product / demand;
+            } else {
+                quotas[consumer] = (long) ((double) consumerDemand / demand * supply);
+            }
+        }
+    }
+
+    /**
+     * Check is entry should be delivered to consumer
+     *
+     * @param entry entry index
+     * @return true - entry kept, false - otherwise
+     */
+    boolean isKept(int entry) {
+        return kept[entry];
+    }
+
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    @NotNull
+    EnergyEndpoint getNode(int entry) {
+        return entryNodes[entry];
+    }
+
+    @NotNull
+    EnergyOffer getOffer(int entry) {
+        return entryOffers[entry];
+    }
+
+    long getAmount(int entry) {
+        return entryAmounts[entry];
+    }
+
+    long getCost(int entry) {
+        return entryCosts[entry];
+    }
+
+    /**
+     * Release collected offers and consumers
+     */
+    void clear() {
+        for (int c = 0; c < consumerCount; c++) {
+            consumers[c].distributionIndex = -1;
+            consumers[c] = null;
+        }
+        Arrays.fill(entryNodes, 0, entryCount, null);
+        Arrays.fill(entryOffers, 0, entryCount, null);
+        consumerCount = 0;
+        entryCount = 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.EnergyOfferBatch;
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Supplier or consumer node of energy graph.<br/>
+ * Graph data of node is kept by {@link EnergyNodeStore}, endpoint keeps block references and delivery state only,
+ * so cables, which are the most of graph, have no objects.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyEndpoint {
+    /**
+     * Node id in {@link EnergyNodeStore}
+     */
+    final int id;
+    @Nullable
+    final EnergySupplier supplier;
+    /**
+     * Consumer, that receives offers, null for cables
+     */
+    @Nullable
+    final EnergyConsumer consumer;
+    /**
+     * Index of node in network suppliers, -1 if node is not supplier
+     */
+    int supplierIndex = -1;
+    /**
+     * Routes from node, if node is supplier
+     */
+    EnergyRoutes routes;
+    /**
+     * Route search of supplier, postponed by tick budget
+     */
+    EnergyRouteSearch search;
+    /**
+     * Offers of consumer for current tick, reused between ticks
+     */
+    EnergyOfferBatch batch;
+    boolean batched;
+    /**
+     * Index of consumer in network distributor on current commit, -1 if consumer has no offers
+     */
+    int distributionIndex = -1;
+
+    private EnergyEndpoint(int id, @Nullable EnergySupplier supplier, @Nullable EnergyConsumer consumer) {
+        this.id = id;
+        this.supplier = supplier;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Create endpoint of energy block
+     *
+     * @param id node id
+     * @param block energy block
+     * @return endpoint or null, if block is cable
+     */
+    @Nullable
+    static EnergyEndpoint of(int id, @NotNull Object block) {
+        var supplier = block instanceof EnergySupplier it ? it : null;
+        var consumer = block instanceof EnergyConsumer it && !(block instanceof EnergyCable) ? it : null;
+        if (supplier == null && consumer == null) {
+            return null;
+        }
+        return new EnergyEndpoint(id, supplier, consumer);
+    }
+}
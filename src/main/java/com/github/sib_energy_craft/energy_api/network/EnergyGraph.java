@@ -0,0 +1,119 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Packed transfer graph of energy network, used by {@link EnergyRouteSolver}.<br/>
+ * Directed transfer edges of network nodes stored in CSR (compressed sparse row) arrays:
+ * edges of node {@code i} are targets {@code edgeTargets[edgeStarts[i]..edgeStarts[i + 1])} in direction order.
+ * Transfer cost and capacity of nodes are stored in primitive arrays too, so route search reads
+ * only int and long arrays.<br/>
+ * Graph is derived from {@link EnergyNodeStore} links, which are the source of truth of world topology,
+ * graph node {@code i} is store node {@code ids[i]}.<br/>
+ * Resistance and capacity belong to cable blocks, not to links between blocks,
+ * so they are kept per node, that is the same as per outgoing edge, but takes less memory.<br/>
+ * Node indices are indices of nodes in network, so graph should be rebuilt after network topology changed.
+ * Graph reuses its arrays between builds.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyGraph {
+    /**
+     * Transfer cost of node, that doesn't pass energy further, e.g. consumer or supplier
+     */
+    static final long NOT_RELAY = -1;
+
+    private int[] ids = new int[0];
+    private int size;
+    /**
+     * Raw resistance of cable node, {@link #NOT_RELAY} for other nodes
+     */
+    private long[] relayCosts = new long[0];
+    /**
+     * Raw max energy amount, that node can transfer, see {@link EnergyNodeStore#getThreshold(int)}
+     */
+    private long[] thresholds = new long[0];
+    /**
+     * Start of node edges in {@link #edgeTargets}, end of edges is start of next node
+     */
+    private int[] edgeStarts = new int[1];
+    private int[] edgeTargets = new int[0];
+
+    /**
+     * Build graph from network nodes
+     *
+     * @param store nodes of world
+     * @param ids ids of network nodes, index of id is index of node in network
+     * @param size amount of network nodes
+     */
+    void build(@NotNull EnergyNodeStore store, @NotNull int[] ids, int size) {
+        if (relayCosts.length < size) {
+            relayCosts = new long[ids.length];
+            thresholds = new long[ids.length];
+            edgeStarts = new int[ids.length + 1];
+        }
+        if (edgeTargets.length < size) {
+            edgeTargets = new int[Math.max(8, size * 2)];
+        }
+        var links = store.links;
+        var indices = store.indices;
+        int edgeCount = 0;
+        for (int i = 0; i < size; i++) {
+            int id = ids[i];
+            edgeStarts[i] = edgeCount;
+            relayCosts[i] = store.isCable(id) ? store.getResistance(id) : NOT_RELAY;
+            thresholds[i] = store.getThreshold(id);
+            int base = id * EnergyNodeStore.SIDES;
+            for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+                int neighbour = links[base + d];
+                if (neighbour == EnergyNodeStore.NONE || !store.canTransferTo(id, d, neighbour)) {
+                    continue;
+                }
+                if (edgeCount == edgeTargets.length) {
+                    edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+                }
+                edgeTargets[edgeCount++] = indices[neighbour];
+            }
+        }
+        edgeStarts[size] = edgeCount;
+        this.ids = ids;
+        this.size = size;
+    }
+
+    /**
+     * Get store ids of graph nodes
+     *
+     * @return node ids, first {@link #getSize()} are valid
+     */
+    @NotNull
+    int[] getIds() {
+        return ids;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    @NotNull
+    long[] getRelayCosts() {
+        return relayCosts;
+    }
+
+    @NotNull
+    long[] getThresholds() {
+        return thresholds;
+    }
+
+    @NotNull
+    int[] getEdgeStarts() {
+        return edgeStarts;
+    }
+
+    @NotNull
+    int[] getEdgeTargets() {
+        return edgeTargets;
+    }
+}
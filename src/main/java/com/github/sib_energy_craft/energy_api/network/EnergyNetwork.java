@@ -0,0 +1,720 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.EnergyOfferBatch;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Energy network - connected component of energy blocks.<br/>
+ * Network computes shortest resistance paths from each {@link com.github.sib_energy_craft.energy_api.supplier.EnergySupplier}
+ * to each reachable {@link com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer} once
+ * and delivers energy offers in one pass per tick, so cables are not ticked one by one.<br/>
+ * Network tick consists of three phases: offers gathering and delivery commit on server thread
+ * and delivery planning, that can be done in parallel with other networks.<br/>
+ * Network with steady state replays delivery plan of previous tick and falls asleep if nobody accepts its offers.<br/>
+ * Nodes of frozen chunks, see {@link EnergyChunk}, don't supply, receive or pass energy.<br/>
+ * Network topology changed incrementally by {@link EnergyNetworkManager}, routes recomputed only if route nodes changed,
+ * on packed {@link EnergyGraph}, that is rebuilt once per topology change.<br/>
+ * Network keeps ids of its nodes in {@link EnergyNodeStore} of world.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyNetwork {
+    /**
+     * Network falls asleep after such amount of ticks without accepted offers and supplier changes
+     */
+    private static final int IDLE_TICKS = 20;
+    /**
+     * Sleeping network offers energy to consumers once per such amount of ticks
+     */
+    private static final int PROBE_INTERVAL = 20;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final EnergyNodeStore store;
+    /**
+     * Ids of network nodes
+     */
+    private int[] nodes = new int[8];
+    private int size;
+    private EnergyEndpoint[] suppliers = new EnergyEndpoint[4];
+    private int supplierCount;
+    private int shockingCount;
+    /**
+     * Ids of shocking cables, energized by current delivery plan, and max raw energy amount carried by them
+     */
+    private int[] energized = new int[0];
+    private long[] energizedAmounts = new long[0];
+    private int energizedCount;
+    /**
+     * Position in {@link #energized} by cable id
+     */
+    private final Int2IntOpenHashMap energizedSlots = new Int2IntOpenHashMap();
+    private boolean[] blocked = new boolean[0];
+    private long version;
+    /**
+     * Counter of network topology changes
+     */
+    private long revision;
+    private final EnergyGraph graph = new EnergyGraph();
+    /**
+     * Packed graph should be rebuilt before next route search
+     */
+    private boolean graphOutdated = true;
+    /**
+     * Amount of suppliers, which routes are outdated and postponed by tick budget
+     */
+    private int routeBacklog;
+    private EnergyOffer[] offers = new EnergyOffer[0];
+    private long[] offerAmounts = new long[0];
+    private boolean[] overloaded = new boolean[0];
+    /**
+     * Planned deliveries, grouped by supplier, supplier group ends at {@link #deliveryEnds}
+     */
+    private EnergyEndpoint[] deliveryNodes = new EnergyEndpoint[8];
+    private long[] deliveryCosts = new long[8];
+    private int[] deliveryEnds = new int[0];
+    private int deliverySize;
+    private long[] plannedAmounts = new long[0];
+    private boolean planned;
+    private boolean active;
+    private boolean sleeping;
+    private int idleTicks;
+    private int sleepTicks;
+    private final EnergyStatistics statistics;
+    private long forwardedOffers;
+    /**
+     * Statistics, passed to consumer batches on delivery, null if statistics disabled
+     */
+    @Nullable
+    private EnergyStatistics deliveryStatistics;
+    /**
+     * Consumers, that received offers on current commit
+     */
+    private EnergyEndpoint[] batched = new EnergyEndpoint[8];
+    private int batchedCount;
+    private EnergyDistributor distributor;
+    /**
+     * Distributor of current commit, null if offers are given to all consumers
+     */
+    private EnergyDistributor distributing;
+
+    /**
+     * Create network
+     *
+     * @param store nodes of world
+     * @param parentStatistics statistics of network dimension
+     */
+    EnergyNetwork(@NotNull EnergyNodeStore store, @Nullable EnergyStatistics parentStatistics) {
+        this.store = store;
+        this.statistics = new EnergyStatistics(parentStatistics, EnergyStatistics.NETWORK_WINDOW);
+        this.energizedSlots.defaultReturnValue(-1);
+    }
+
+    /**
+     * Add node to network
+     *
+     * @param id node id
+     */
+    void add(int id) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        wakeUp();
+        planned = false;
+        graphOutdated = true;
+        revision++;
+        store.networks[id] = this;
+        store.indices[id] = size;
+        nodes[size++] = id;
+        if (store.isShocking(id)) {
+            shockingCount++;
+        }
+        var endpoint = store.endpoints[id];
+        if (endpoint != null && endpoint.supplier != null) {
+            if (supplierCount == suppliers.length) {
+                suppliers = Arrays.copyOf(suppliers, supplierCount * 2);
+            }
+            endpoint.supplierIndex = supplierCount;
+            suppliers[supplierCount++] = endpoint;
+        }
+    }
+
+    /**
+     * Remove node from network
+     *
+     * @param id node id
+     */
+    void remove(int id) {
+        wakeUp();
+        planned = false;
+        graphOutdated = true;
+        revision++;
+        if (store.isShocking(id)) {
+            shockingCount--;
+        }
+        int index = store.indices[id];
+        int last = nodes[--size];
+        nodes[index] = last;
+        store.indices[last] = index;
+        var endpoint = store.endpoints[id];
+        if (endpoint != null && endpoint.supplierIndex >= 0) {
+            var lastSupplier = suppliers[--supplierCount];
+            suppliers[endpoint.supplierIndex] = lastSupplier;
+            lastSupplier.supplierIndex = endpoint.supplierIndex;
+            suppliers[supplierCount] = null;
+            endpoint.supplierIndex = -1;
+        }
+        store.networks[id] = null;
+    }
+
+    /**
+     * Move all nodes of other network to this network
+     *
+     * @param other network to absorb
+     */
+    void absorb(@NotNull EnergyNetwork other) {
+        for (int i = 0; i < other.size; i++) {
+            int id = other.nodes[i];
+            var endpoint = store.endpoints[id];
+            if (endpoint != null) {
+                endpoint.supplierIndex = -1;
+            }
+            add(id);
+        }
+        other.nodes = new int[0];
+        other.size = 0;
+        other.suppliers = new EnergyEndpoint[0];
+        other.supplierCount = 0;
+        other.shockingCount = 0;
+    }
+
+    /**
+     * Set routes of supplier, restored from persisted state
+     *
+     * @param supplier supplier node
+     * @param routes supplier routes
+     */
+    void setRoutes(@NotNull EnergyEndpoint supplier, @NotNull EnergyRoutes routes) {
+        supplier.routes = routes;
+        supplier.search = null;
+        planned = false;
+    }
+
+    /**
+     * Drop delivery plan and wake up network, e.g. when chunk of network node frozen or unfrozen
+     */
+    void invalidatePlan() {
+        planned = false;
+        wakeUp();
+    }
+
+    /**
+     * Wake up network, network will be ticked on next server tick
+     */
+    void wakeUp() {
+        sleeping = false;
+        idleTicks = 0;
+        sleepTicks = 0;
+    }
+
+    /**
+     * Collect offers of network suppliers.<br/>
+     * Network falls asleep if offers of suppliers are not changed and not accepted by consumers for a while
+     * and no route searches are postponed.
+     * Sleeping network is not ticked, except rare probe ticks, and woken up when any of probe offers accepted,
+     * supplier offer changed, network topology changed or by {@link #wakeUp()}.<br/>
+     * Should be called from server thread.
+     *
+     * @param version current topology version
+     */
+    void gather(long version) {
+        this.version = version;
+        active = false;
+        if (sleeping) {
+            if (isAnyOfferAccepted()) {
+                wakeUp();
+            } else {
+                Arrays.fill(offers, 0, supplierCount, null);
+                if (++sleepTicks < PROBE_INTERVAL) {
+                    return;
+                }
+                sleepTicks = 0;
+            }
+        }
+        var startedAt = startTiming();
+        if (offers.length < supplierCount) {
+            offers = Arrays.copyOf(offers, suppliers.length);
+            offerAmounts = Arrays.copyOf(offerAmounts, suppliers.length);
+            deliveryEnds = new int[suppliers.length];
+            overloaded = new boolean[suppliers.length];
+            plannedAmounts = new long[suppliers.length];
+            planned = false;
+        }
+        var idle = !isAnyOfferAccepted();
+        for (int s = 0; s < supplierCount; s++) {
+            var supplier = suppliers[s];
+            if (store.chunks[supplier.id].frozen) {
+                if (offerAmounts[s] != 0) {
+                    idle = false;
+                }
+                offers[s] = null;
+                offerAmounts[s] = 0;
+                continue;
+            }
+            var offer = supplier.supplier.getTickOffer();
+            var amount = offer.getEnergyAmount().getRaw();
+            if (amount != offerAmounts[s]) {
+                idle = false;
+            }
+            offers[s] = offer;
+            offerAmounts[s] = amount;
+        }
+        if (!idle) {
+            wakeUp();
+        } else if (!sleeping && routeBacklog == 0 && ++idleTicks >= IDLE_TICKS) {
+            sleeping = true;
+        }
+        active = true;
+        if (startedAt != NOT_TIMED) {
+            statistics.addOffersCreated(supplierCount);
+            stopTiming(startedAt);
+        }
+    }
+
+    private boolean isAnyOfferAccepted() {
+        for (int s = 0; s < supplierCount; s++) {
+            var offer = offers[s];
+            if (offer != null && offer.isAccepted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recompute outdated routes and plan delivery of gathered offers.<br/>
+     * If routes and supplier offers amounts are the same as on previous tick, then previous plan is replayed.<br/>
+     * Route search is done in units of tick budget, if budget is over, then search is continued on next tick
+     * and supplier delivers by its outdated routes, nodes that left network are skipped on delivery,
+     * and supplier without routes doesn't deliver until routes are found.<br/>
+     * Method doesn't call any block code, so different networks can be planned in parallel.
+     *
+     * @param solver route solver of current thread
+     * @param budget budget of current tick
+     */
+    void plan(@NotNull EnergyRouteSolver solver, @NotNull EnergyTickBudget budget) {
+        if (!active) {
+            return;
+        }
+        var startedAt = startTiming();
+        planDeliveries(solver, budget);
+        stopTiming(startedAt);
+    }
+
+    private void planDeliveries(@NotNull EnergyRouteSolver solver, @NotNull EnergyTickBudget budget) {
+        var replay = planned;
+        int backlog = 0;
+        int solved = 0;
+        for (int s = 0; s < supplierCount; s++) {
+            var supplier = suppliers[s];
+            var routes = supplier.routes;
+            if (routes == null || routes.isOutdated(this, supplier, version)) {
+                var solvedRoutes = solver.solve(this, supplier, version, budget);
+                if (solvedRoutes != null) {
+                    routes = solvedRoutes;
+                    supplier.routes = routes;
+                    replay = false;
+                    solved++;
+                } else {
+                    backlog++;
+                }
+            }
+            if (routes != null && blocked.length < routes.size) {
+                blocked = new boolean[routes.size];
+            }
+            if (plannedAmounts[s] != offerAmounts[s]) {
+                replay = false;
+            }
+        }
+        routeBacklog = backlog;
+        if (solved != 0 && EnergyStatistics.isEnabled()) {
+            statistics.addRoutesSolved(solved);
+        }
+        if (replay) {
+            return;
+        }
+        Arrays.fill(deliveryNodes, 0, deliverySize, null);
+        deliverySize = 0;
+        energizedSlots.clear();
+        energizedCount = 0;
+        for (int s = 0; s < supplierCount; s++) {
+            overloaded[s] = false;
+            var amount = offerAmounts[s];
+            var routes = suppliers[s].routes;
+            if (amount > 0 && routes != null) {
+                planSupplier(s, routes, amount);
+            }
+            deliveryEnds[s] = deliverySize;
+            plannedAmounts[s] = amount;
+        }
+        planned = true;
+    }
+
+    private void planSupplier(int s, @NotNull EnergyRoutes routes, long amount) {
+        var routeNodes = routes.nodes;
+        var routeParents = routes.parents;
+        var routeCosts = routes.costs;
+        var routeLimits = routes.limits;
+        var overloading = routes.isOverloadedBy(amount);
+        var networks = store.networks;
+        var chunks = store.chunks;
+        var burning = store.burning;
+        var endpoints = store.endpoints;
+        for (int i = 0; i < routes.size; i++) {
+            int parent = routeParents[i];
+            long cost = routeCosts[i];
+            if ((parent >= 0 && blocked[parent]) || cost >= amount) {
+                blocked[i] = true;
+                continue;
+            }
+            int node = routeNodes[i];
+            if (networks[node] != this || !routes.isOriginal(store, node)) {
+                routes.dirty = true;
+                blocked[i] = true;
+                continue;
+            }
+            if (chunks[node].frozen) {
+                blocked[i] = true;
+                continue;
+            }
+            blocked[i] = false;
+            var endpoint = endpoints[node];
+            if (endpoint == null || endpoint.consumer == null) {
+                if (burning[node]) {
+                    blocked[i] = true;
+                } else if (overloading && amount > routeLimits[i]) {
+                    overloaded[s] = true;
+                    blocked[i] = true;
+                } else if (store.isShocking(node)) {
+                    energize(node, amount - cost);
+                }
+                continue;
+            }
+            if (deliverySize == deliveryNodes.length) {
+                deliveryNodes = Arrays.copyOf(deliveryNodes, deliverySize * 2);
+                deliveryCosts = Arrays.copyOf(deliveryCosts, deliverySize * 2);
+            }
+            deliveryNodes[deliverySize] = endpoint;
+            deliveryCosts[deliverySize++] = cost;
+        }
+    }
+
+    private void energize(int node, long amount) {
+        int slot = energizedSlots.putIfAbsent(node, energizedCount);
+        if (slot < 0) {
+            if (energizedCount == energized.length) {
+                energized = Arrays.copyOf(energized, Math.max(8, energizedCount * 2));
+                energizedAmounts = Arrays.copyOf(energizedAmounts, energized.length);
+            }
+            energized[energizedCount] = node;
+            energizedAmounts[energizedCount++] = amount;
+        } else if (amount > energizedAmounts[slot]) {
+            energizedAmounts[slot] = amount;
+        }
+    }
+
+    /**
+     * Get ids of shocking cables, energized by current delivery plan.<br/>
+     * Plan of sleeping or not ticked network is not current, so it has no energized cables.
+     *
+     * @return energized cables, first {@link #getEnergizedCount()} are valid
+     */
+    @NotNull
+    int[] getEnergized() {
+        return energized;
+    }
+
+    int getEnergizedCount() {
+        return active && shockingCount > 0 ? energizedCount : 0;
+    }
+
+    /**
+     * Get raw energy amount carried by energized cable.<br/>
+     * Cable, that left network after plan was made, is not energized by this network.
+     *
+     * @param index index of cable in {@link #getEnergized()}
+     * @return raw carried amount, 0 if cable is not energized
+     */
+    long getEnergizedAmount(int index) {
+        return store.networks[energized[index]] == this ? energizedAmounts[index] : 0;
+    }
+
+    /**
+     * Deliver planned offers to consumers.<br/>
+     * Offers are collected into batch of each consumer in supplier order,
+     * then each consumer receives its batch by one {@link EnergyConsumer#receiveOffers(EnergyOfferBatch)} call.<br/>
+     * Suppliers that overload cables are delivered one by one, as cable burns only if offer accepted.
+     * Cables that can't handle passed energy collected into burned list.<br/>
+     * If {@link EnergyNetworks#getDistributionPolicy()} is not {@link EnergyDistributionPolicy#OFFER_ALL},
+     * offers are distributed by {@link EnergyDistributor} before batching.<br/>
+     * Should be called from server thread.
+     *
+     * @param burned collector of burned cables
+     */
+    void commit(@NotNull IntList burned) {
+        if (!active) {
+            return;
+        }
+        var startedAt = startTiming();
+        deliveryStatistics = startedAt == NOT_TIMED ? null : statistics;
+        int burnedBefore = burned.size();
+        var policy = EnergyNetworks.getDistributionPolicy();
+        if (policy != EnergyDistributionPolicy.OFFER_ALL) {
+            if (distributor == null) {
+                distributor = new EnergyDistributor();
+            }
+            distributing = distributor;
+        }
+        int from = 0;
+        for (int s = 0; s < supplierCount; s++) {
+            int to = deliveryEnds[s];
+            var offer = offers[s];
+            if (offer == null) {
+                from = to;
+                continue;
+            }
+            if (overloaded[s] || burned.size() != burnedBefore) {
+                deliver(suppliers[s], offer, offerAmounts[s], burned);
+            } else {
+                var amount = offerAmounts[s];
+                for (int i = from; i < to; i++) {
+                    receiveOffer(deliveryNodes[i], offer, s, amount, deliveryCosts[i]);
+                }
+            }
+            from = to;
+        }
+        if (distributing != null) {
+            distributing = null;
+            distribute(policy);
+        }
+        for (int i = 0; i < batchedCount; i++) {
+            var node = batched[i];
+            batched[i] = null;
+            node.batched = false;
+            node.consumer.receiveOffers(node.batch);
+        }
+        batchedCount = 0;
+        if (startedAt != NOT_TIMED) {
+            statistics.addOffersForwarded(forwardedOffers);
+            statistics.addExplosions(burned.size() - burnedBefore);
+            stopTiming(startedAt);
+            statistics.completeTick();
+        }
+        forwardedOffers = 0;
+    }
+
+    /**
+     * Sequential delivery of one supplier offer
+     */
+    private void deliver(@NotNull EnergyEndpoint supplierNode,
+                         @NotNull EnergyOffer offer,
+                         long amount,
+                         @NotNull IntList burned) {
+        var routes = supplierNode.routes;
+        if (routes == null || amount <= 0) {
+            return;
+        }
+        var routeNodes = routes.nodes;
+        var routeParents = routes.parents;
+        var routeCosts = routes.costs;
+        var routeLimits = routes.limits;
+        var networks = store.networks;
+        var chunks = store.chunks;
+        var burning = store.burning;
+        var endpoints = store.endpoints;
+        for (int i = 0; i < routes.size; i++) {
+            int parent = routeParents[i];
+            long cost = routeCosts[i];
+            int node = routeNodes[i];
+            if ((parent >= 0 && blocked[parent]) || cost >= amount || networks[node] != this ||
+                    !routes.isOriginal(store, node) || chunks[node].frozen) {
+                blocked[i] = true;
+                continue;
+            }
+            blocked[i] = false;
+            var endpoint = endpoints[node];
+            if (endpoint == null || endpoint.consumer == null) {
+                if (burning[node]) {
+                    blocked[i] = true;
+                } else if (amount > routeLimits[i] && offer.acceptOffer()) {
+                    burning[node] = true;
+                    burned.add(node);
+                    blocked[i] = true;
+                }
+                continue;
+            }
+            receiveOffer(endpoint, offer, supplierNode.supplierIndex, amount, cost);
+        }
+    }
+
+    private void receiveOffer(@NotNull EnergyEndpoint consumer,
+                              @NotNull EnergyOffer offer,
+                              int supplier,
+                              long amount,
+                              long cost) {
+        if (distributing != null) {
+            distributing.add(consumer, offer, supplier, amount, cost);
+        } else {
+            batchOffer(consumer, offer, amount, cost);
+        }
+    }
+
+    /**
+     * Batch offers kept by distributor, in the same order as they were collected
+     */
+    private void distribute(@NotNull EnergyDistributionPolicy policy) {
+        if (distributor.isEmpty()) {
+            return;
+        }
+        distributor.distribute(policy, offerAmounts, supplierCount);
+        for (int i = 0; i < distributor.getEntryCount(); i++) {
+            if (distributor.isKept(i)) {
+                batchOffer(distributor.getNode(i), distributor.getOffer(i), distributor.getAmount(i), distributor.getCost(i));
+            }
+        }
+        distributor.clear();
+    }
+
+    private void batchOffer(@NotNull EnergyEndpoint consumer,
+                            @NotNull EnergyOffer offer,
+                            long amount,
+                            long cost) {
+        var batch = consumer.batch;
+        if (batch == null) {
+            batch = new EnergyOfferBatch();
+            consumer.batch = batch;
+        }
+        if (!consumer.batched) {
+            consumer.batched = true;
+            batch.clear(deliveryStatistics);
+            if (batchedCount == batched.length) {
+                batched = Arrays.copyOf(batched, batchedCount * 2);
+            }
+            batched[batchedCount++] = consumer;
+        }
+        batch.add(offer, amount - cost);
+        forwardedOffers++;
+    }
+
+    private static long startTiming() {
+        return EnergyStatistics.isEnabled() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    private void stopTiming(long startedAt) {
+        if (startedAt != NOT_TIMED) {
+            statistics.addTickNanos(System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Check is network ticked on current tick
+     *
+     * @return true - network gathered offers on current tick, false - otherwise
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Check is network sleeping
+     *
+     * @return true - network is sleeping, false - otherwise
+     */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Get statistics of network
+     *
+     * @return network statistics
+     */
+    @NotNull
+    public EnergyStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get nodes of world, network nodes belong to
+     *
+     * @return node store
+     */
+    @NotNull
+    EnergyNodeStore getStore() {
+        return store;
+    }
+
+    /**
+     * Get counter of network topology changes, it is changed when node added to or removed from network
+     *
+     * @return network revision
+     */
+    long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Get packed transfer graph of network, graph is rebuilt if network topology changed after last call.<br/>
+     * Should be called from thread, that plans network.
+     *
+     * @return network graph
+     */
+    @NotNull
+    EnergyGraph getGraph() {
+        if (graphOutdated) {
+            graph.build(store, nodes, size);
+            graphOutdated = false;
+        }
+        return graph;
+    }
+
+    @NotNull
+    EnergyEndpoint[] getSuppliers() {
+        return suppliers;
+    }
+
+    /**
+     * Get amount of energy blocks in network
+     *
+     * @return network size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get amount of energy suppliers in network
+     *
+     * @return amount of suppliers
+     */
+    public int getSupplierCount() {
+        return supplierCount;
+    }
+
+    /**
+     * Get amount of suppliers, which route search is postponed by tick budget
+     *
+     * @return route search backlog
+     */
+    public int getRouteBacklog() {
+        return routeBacklog;
+    }
+}
@@ -0,0 +1,704 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Manager of energy networks of one world.<br/>
+ * Manager tracks energy blocks of world, merges them into {@link EnergyNetwork} and ticks networks.<br/>
+ * Graph of world is kept packed in {@link EnergyNodeStore}, networks and routes refer to nodes by id.<br/>
+ * Topology maintained incrementally: placed block joins or merges neighbour networks,
+ * broken block starts localized split detection, only routes that pass changed nodes are recomputed.<br/>
+ * Block changes are collected and applied at the beginning of next manager tick.
+ * Removed blocks leave graph at once, while placed blocks and split detection are postponed by tick budget.<br/>
+ * Manager can tick own networks by {@link #tick()}, or be ticked by {@link EnergyTickScheduler} together with other worlds.<br/>
+ * Routes of suppliers are persisted into world state and restored when networks loaded again, see {@link EnergyNetworkState}.<br/>
+ * Manager keeps index of loaded energy blocks by chunk, see {@link EnergyChunk}, updated immediately on block entity load and unload,
+ * so energy blocks of chunk and energy neighbours are found without block entity lookups in possibly unloaded chunks.
+ * Chunks, that are loaded but not ticked, are frozen and energy doesn't flow across their boundary.<br/>
+ * Route searches, placed blocks, split detection and restore of persisted routes are limited by tick budget,
+ * see {@link EnergyNetworks#setTickBudget(long)}.<br/>
+ * Overloaded cables are burned out in batch at the end of server tick, see {@link EnergyBurnQueue}.<br/>
+ * Energized uninsulated cables shock entities after networks commit, see {@link EnergyShocks}.<br/>
+ * Manager of world is suspended while engine is disabled, suspended manager keeps chunk index only,
+ * see {@link #setSuspended(boolean)}.<br/>
+ * Manager without world can be used for simulations, in that case burned cables just removed from graph.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyNetworkManager {
+    /**
+     * Frozen state of chunks is checked once per such amount of ticks
+     */
+    private static final int CHUNK_CHECK_INTERVAL = 20;
+
+    @Nullable
+    private final ServerWorld world;
+    private final EnergyNodeStore store = new EnergyNodeStore();
+    private final Long2ObjectMap<EnergyChunk> chunks = new Long2ObjectOpenHashMap<>();
+    /**
+     * Placed or changed blocks, which nodes are not built yet
+     */
+    private final Long2ObjectLinkedOpenHashMap<Object> placed = new Long2ObjectLinkedOpenHashMap<>();
+    /**
+     * Positions of nodes, which blocks are removed or replaced
+     */
+    private final LongLinkedOpenHashSet removed = new LongLinkedOpenHashSet();
+    private final Set<EnergyNetwork> networks = new LinkedHashSet<>();
+    private final IntArrayList burned = new IntArrayList();
+    private final EnergyBurnQueue burnQueue = new EnergyBurnQueue();
+    private final EnergyShocks shocks = new EnergyShocks();
+    private final EnergyRouteSolver solver = new EnergyRouteSolver();
+    private final EnergyNetworkSplitter splitter = new EnergyNetworkSplitter();
+    private final int[] detached = new int[EnergyNodeStore.SIDES];
+    /**
+     * Packed positions of former neighbours of removed nodes, which split detection is postponed by tick budget
+     */
+    private final Deque<long[]> splits = new ArrayDeque<>();
+    private final EnergyStatistics statistics;
+    @Nullable
+    private final EnergyNetworkState state;
+    private long version;
+    /**
+     * Topology version, on which persisted routes were restored and state marked dirty last time
+     */
+    private long persistedVersion;
+    /**
+     * Persisted routes are being restored, restore was postponed by tick budget
+     */
+    private boolean restoring;
+    /**
+     * Graph is not maintained, only chunk index of energy blocks
+     */
+    private boolean suspended;
+    private int chunkCheckTicks;
+    /**
+     * Last version of chunks placement, see {@link EnergyChunk#version}
+     */
+    private int placementVersion;
+
+    public EnergyNetworkManager(@Nullable ServerWorld world) {
+        this.world = world;
+        this.statistics = world == null ?
+                new EnergyStatistics(null, EnergyStatistics.WORLD_WINDOW) :
+                EnergyStatistics.get(world);
+        this.state = world == null ? null : EnergyNetworkState.get(world, this);
+    }
+
+    /**
+     * Add energy block to world graph.<br/>
+     * Objects that are not energy suppliers or consumers are ignored.
+     *
+     * @param pos packed block position
+     * @param block energy block
+     */
+    public void add(long pos, @NotNull Object block) {
+        if (!EnergyNodeStore.isEnergyBlock(block)) {
+            return;
+        }
+        var chunk = getChunk(EnergyChunk.toChunkPos(pos));
+        chunk.blocks.put(pos, block);
+        chunk.version = ++placementVersion;
+        if (!suspended) {
+            placed.put(pos, block);
+            if (store.get(pos) != EnergyNodeStore.NONE) {
+                removed.add(pos);
+            }
+        }
+    }
+
+    /**
+     * Remove energy block from world graph.<br/>
+     * Block removed only if it is the same block as was added on passed position.
+     *
+     * @param pos packed block position
+     * @param block energy block
+     */
+    public void remove(long pos, @NotNull Object block) {
+        var chunk = chunks.get(EnergyChunk.toChunkPos(pos));
+        var indexed = chunk != null && chunk.blocks.remove(pos, block);
+        if (indexed) {
+            chunk.version = ++placementVersion;
+            release(chunk);
+        }
+        if (suspended) {
+            return;
+        }
+        var change = placed.get(pos);
+        if (change == block) {
+            placed.remove(pos);
+        }
+        // without pending change graph node is built from indexed block
+        if ((change == block || change == null && indexed) && store.get(pos) != EnergyNodeStore.NONE) {
+            removed.add(pos);
+        }
+    }
+
+    /**
+     * Mark energy block as changed.<br/>
+     * Should be called when block changed energy sides, resistance or energy level.
+     *
+     * @param pos packed block position
+     */
+    public void invalidate(long pos) {
+        if (placed.containsKey(pos) || store.get(pos) == EnergyNodeStore.NONE) {
+            return;
+        }
+        var block = getIndexedBlock(pos);
+        if (block != null) {
+            placed.put(pos, block);
+        }
+    }
+
+    /**
+     * Wake up network of energy block.<br/>
+     * Should be called when block state changed in a way, that affects energy flow,
+     * e.g. supplier got energy or consumer inventory changed.
+     *
+     * @param pos packed block position
+     */
+    public void wakeUp(long pos) {
+        int id = store.get(pos);
+        if (id != EnergyNodeStore.NONE) {
+            store.networks[id].wakeUp();
+        }
+    }
+
+    /**
+     * Get loaded energy block.<br/>
+     * Blocks of not loaded and frozen chunks are not returned, so callers don't cause chunk lookups
+     * and don't transfer energy into chunks, that are not ticked.
+     *
+     * @param pos packed block position
+     * @return energy block or null
+     */
+    @Nullable
+    public Object getEnergyBlock(long pos) {
+        var chunk = chunks.get(EnergyChunk.toChunkPos(pos));
+        return chunk == null || chunk.frozen ? null : chunk.blocks.get(pos);
+    }
+
+    @Nullable
+    private Object getIndexedBlock(long pos) {
+        var chunk = chunks.get(EnergyChunk.toChunkPos(pos));
+        return chunk == null ? null : chunk.blocks.get(pos);
+    }
+
+    /**
+     * Get loaded energy blocks of chunk
+     *
+     * @param chunkPos packed chunk position
+     * @return unmodifiable collection of energy blocks
+     */
+    @NotNull
+    public Collection<Object> getEnergyBlocks(long chunkPos) {
+        var chunk = chunks.get(chunkPos);
+        return chunk == null ? Collections.emptyList() : Collections.unmodifiableCollection(chunk.blocks.values());
+    }
+
+    /**
+     * Check is energy flow frozen in chunk, because chunk is not ticked
+     *
+     * @param chunkPos packed chunk position
+     * @return true - chunk is frozen, false - otherwise
+     */
+    public boolean isFrozen(long chunkPos) {
+        var chunk = chunks.get(chunkPos);
+        return chunk != null && chunk.frozen;
+    }
+
+    /**
+     * Freeze chunk, should be called when chunk unloaded.<br/>
+     * Blocks of chunk are removed by block entity unload, but flow across chunk boundary stops immediately.
+     *
+     * @param chunkPos packed chunk position
+     */
+    void freezeChunk(long chunkPos) {
+        var chunk = chunks.get(chunkPos);
+        if (chunk != null && chunk.setFrozen(true)) {
+            chunk.version = ++placementVersion;
+        }
+    }
+
+    /**
+     * Refresh frozen state of chunk, should be called when chunk loaded
+     *
+     * @param chunkPos packed chunk position
+     */
+    void updateChunk(long chunkPos) {
+        var chunk = chunks.get(chunkPos);
+        if (chunk != null && chunk.setFrozen(isChunkFrozen(chunkPos))) {
+            chunk.version = ++placementVersion;
+        }
+    }
+
+    /**
+     * Get version of energy blocks placement around block.<br/>
+     * Version is changed when energy block is loaded or unloaded or chunk is frozen or unfrozen
+     * in chunk of block or in chunk of any block neighbour,
+     * so caches of neighbours are not invalidated by changes in other places of world.
+     *
+     * @param pos packed block position
+     * @return placement version
+     */
+    public long getPlacementVersion(long pos) {
+        int x = BlockPos.unpackLongX(pos);
+        int z = BlockPos.unpackLongZ(pos);
+        int chunkX = ChunkSectionPos.getSectionCoord(x);
+        int chunkZ = ChunkSectionPos.getSectionCoord(z);
+        int edgeX = getChunkEdge(x);
+        int edgeZ = getChunkEdge(z);
+        var chunk = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+        var chunkAlongX = edgeX == 0 ? null : chunks.get(ChunkPos.toLong(chunkX + edgeX, chunkZ));
+        var chunkAlongZ = edgeZ == 0 ? null : chunks.get(ChunkPos.toLong(chunkX, chunkZ + edgeZ));
+        // chunk versions are unique, so max version with mask of present chunks changes on any change of these chunks
+        int max = Math.max(getVersion(chunk), Math.max(getVersion(chunkAlongX), getVersion(chunkAlongZ)));
+        int present = (chunk == null ? 0 : 1) | (chunkAlongX == null ? 0 : 2) | (chunkAlongZ == null ? 0 : 4);
+        return ((long) max << 3) | present;
+    }
+
+    private static int getVersion(@Nullable EnergyChunk chunk) {
+        return chunk == null ? 0 : chunk.version;
+    }
+
+    /**
+     * Get direction to neighbour chunk, if coordinate is on chunk edge
+     *
+     * @return -1 or 1 for edge coordinate, 0 - otherwise
+     */
+    private static int getChunkEdge(int coordinate) {
+        int local = coordinate & 15;
+        return local == 0 ? -1 : local == 15 ? 1 : 0;
+    }
+
+    /**
+     * Check is manager suspended
+     *
+     * @return true - graph is not maintained, false - otherwise
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Suspend or resume graph maintaining.<br/>
+     * Suspended manager keeps only chunk index of energy blocks, used by default tickers.
+     * Graph is dropped on suspend, routes of suppliers are kept in world state,
+     * and built again from indexed blocks on resume.<br/>
+     * Managers of worlds are suspended by engine, manager without world can be suspended to serve default tickers only.
+     * Should be called from server thread.
+     *
+     * @param suspended suspend flag
+     */
+    public void setSuspended(boolean suspended) {
+        if (this.suspended == suspended) {
+            return;
+        }
+        this.suspended = suspended;
+        placed.clear();
+        removed.clear();
+        splits.clear();
+        if (suspended) {
+            for (var network : networks) {
+                var suppliers = network.getSuppliers();
+                for (int s = 0; s < network.getSupplierCount(); s++) {
+                    var routes = suppliers[s].routes;
+                    if (state != null && routes != null) {
+                        state.keep(store, suppliers[s].id, routes);
+                    }
+                }
+            }
+            store.clear();
+            networks.clear();
+            burned.clear();
+            chunks.values().removeIf(chunk -> {
+                chunk.clearNodes();
+                return chunk.isEmpty();
+            });
+            ++version;
+            return;
+        }
+        for (var chunk : chunks.values()) {
+            for (var entry : chunk.blocks.long2ObjectEntrySet()) {
+                placed.put(entry.getLongKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Refresh frozen state of indexed chunks once per {@link #CHUNK_CHECK_INTERVAL} ticks.<br/>
+     * Should be called from server thread every tick, even if engine is disabled, as default tickers use index too.
+     */
+    void updateChunks() {
+        if (world == null || ++chunkCheckTicks < CHUNK_CHECK_INTERVAL) {
+            return;
+        }
+        chunkCheckTicks = 0;
+        for (var chunk : chunks.values()) {
+            if (chunk.setFrozen(isChunkFrozen(chunk.pos))) {
+                chunk.version = ++placementVersion;
+            }
+        }
+    }
+
+    private boolean isChunkFrozen(long chunkPos) {
+        return world != null && !world.shouldTickBlocksInChunk(chunkPos);
+    }
+
+    @NotNull
+    private EnergyChunk getChunk(long chunkPos) {
+        var chunk = chunks.get(chunkPos);
+        if (chunk == null) {
+            chunk = new EnergyChunk(store, chunkPos, isChunkFrozen(chunkPos));
+            chunks.put(chunkPos, chunk);
+        }
+        return chunk;
+    }
+
+    private void release(@NotNull EnergyChunk chunk) {
+        if (chunk.isEmpty()) {
+            chunks.remove(chunk.pos);
+        }
+    }
+
+    /**
+     * Schedule burn out of overloaded cable, cable will be destroyed at the end of server tick
+     *
+     * @param pos packed cable position
+     */
+    public void burn(long pos) {
+        if (world != null) {
+            burnQueue.add(pos);
+        }
+    }
+
+    /**
+     * Check is cable scheduled to burn out.<br/>
+     * Scheduled cable should not transfer energy anymore.
+     *
+     * @param pos packed cable position
+     * @return true - cable burns out, false - otherwise
+     */
+    public boolean isBurning(long pos) {
+        return burnQueue.contains(pos);
+    }
+
+    /**
+     * Stop burning of cable, that can't be burned out, e.g. its chunk is frozen
+     *
+     * @param pos packed cable position
+     */
+    void extinguish(long pos) {
+        int id = store.get(pos);
+        if (id != EnergyNodeStore.NONE && store.burning[id]) {
+            store.burning[id] = false;
+            store.networks[id].invalidatePlan();
+        }
+    }
+
+    /**
+     * Burn out scheduled cables.<br/>
+     * Should be called from server thread at the end of server tick.
+     */
+    void burnQueued() {
+        if (world != null) {
+            burnQueue.burn(world, this);
+        }
+    }
+
+    /**
+     * Tick all networks of world on current thread
+     */
+    public void tick() {
+        gather(EnergyTickBudget.UNLIMITED);
+        for (var network : networks) {
+            network.plan(solver, EnergyTickBudget.UNLIMITED);
+        }
+        commit();
+        if (world == null && EnergyStatistics.isEnabled()) {
+            statistics.completeTick();
+        }
+    }
+
+    /**
+     * Apply collected block changes and gather offers of all networks.<br/>
+     * Each placed block, split detection and restore of persisted route is unit of tick budget,
+     * work, that is not done on this tick, is done on next ticks.<br/>
+     * First phase of tick, should be called from server thread.
+     *
+     * @param budget budget of current tick
+     */
+    void gather(@NotNull EnergyTickBudget budget) {
+        applyChanges(budget);
+        if (state != null) {
+            if (version != persistedVersion) {
+                persistedVersion = version;
+                state.markDirty();
+                restoring = state.hasPending();
+            }
+            if (restoring) {
+                restoring = !restoreRoutes(state, budget);
+            }
+        }
+        for (var network : networks) {
+            network.gather(version);
+        }
+    }
+
+    /**
+     * Deliver planned offers of all networks and burn overloaded cables.<br/>
+     * Last phase of tick, should be called from server thread.
+     */
+    void commit() {
+        for (var network : networks) {
+            network.commit(burned);
+        }
+        if (world != null) {
+            shocks.tick(world, networks);
+        }
+        if (!burned.isEmpty()) {
+            burn();
+        }
+    }
+
+    /**
+     * Get energy statistics of world.<br/>
+     * Manager without world has own statistics.
+     *
+     * @return statistics
+     */
+    @NotNull
+    public EnergyStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get amount of suppliers of world, which route search is postponed by tick budget
+     *
+     * @return route search backlog
+     */
+    public int getRouteBacklog() {
+        int backlog = 0;
+        for (var network : networks) {
+            backlog += network.getRouteBacklog();
+        }
+        return backlog;
+    }
+
+    /**
+     * Get current energy networks of world
+     *
+     * @return unmodifiable collection of networks
+     */
+    @NotNull
+    public Collection<EnergyNetwork> getNetworks() {
+        return Collections.unmodifiableSet(networks);
+    }
+
+    /**
+     * Apply collected block changes.<br/>
+     * Removed blocks are always applied, so energy is not delivered into them.
+     * Placed blocks and split detection are applied while tick budget allows,
+     * the rest is kept and applied on next ticks.
+     *
+     * @param budget budget of current tick
+     */
+    private void applyChanges(@NotNull EnergyTickBudget budget) {
+        while (!removed.isEmpty()) {
+            int id = store.get(removed.removeFirstLong());
+            if (id != EnergyNodeStore.NONE) {
+                removeNode(id);
+            }
+        }
+        var exhausted = false;
+        while (!placed.isEmpty()) {
+            if (!budget.tryAcquire()) {
+                exhausted = true;
+                break;
+            }
+            var pos = placed.firstLongKey();
+            var block = placed.removeFirst();
+            int id = store.get(pos);
+            if (id != EnergyNodeStore.NONE) {
+                removeNode(id);
+            }
+            addNode(pos, block);
+        }
+        while (!exhausted && !splits.isEmpty() && budget.tryAcquire()) {
+            split(splits.poll());
+        }
+        store.recycle();
+    }
+
+    private void addNode(long pos, @NotNull Object block) {
+        int id = store.add(pos, block, ++version);
+        getChunk(EnergyChunk.toChunkPos(pos)).addNode(id);
+        EnergyNetwork network = null;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = store.get(BlockPos.offset(pos, EnergyNodeStore.DIRECTIONS[d]));
+            if (neighbour == EnergyNodeStore.NONE || !store.isConnected(id, d, neighbour)) {
+                continue;
+            }
+            store.link(id, d, neighbour);
+            store.versions[neighbour] = version;
+            var neighbourNetwork = store.networks[neighbour];
+            network = network == null ? neighbourNetwork : merge(network, neighbourNetwork);
+        }
+        if (network == null) {
+            network = new EnergyNetwork(store, statistics);
+            networks.add(network);
+        }
+        network.add(id);
+    }
+
+    /**
+     * Restore persisted routes of suppliers, which routes are missing or outdated
+     *
+     * @return true - all suppliers checked, false - restore is postponed by tick budget
+     */
+    private boolean restoreRoutes(@NotNull EnergyNetworkState state, @NotNull EnergyTickBudget budget) {
+        for (var network : networks) {
+            var suppliers = network.getSuppliers();
+            for (int s = 0; s < network.getSupplierCount(); s++) {
+                var supplier = suppliers[s];
+                var routes = supplier.routes;
+                if (!state.isPending(store.positions[supplier.id]) ||
+                        (routes != null && !routes.isOutdated(network, supplier, version))) {
+                    continue;
+                }
+                if (!budget.tryAcquire()) {
+                    return false;
+                }
+                var restored = state.restore(store, supplier, version);
+                if (restored != null) {
+                    network.setRoutes(supplier, restored);
+                }
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private EnergyNetwork merge(@NotNull EnergyNetwork left, @NotNull EnergyNetwork right) {
+        if (left == right) {
+            return left;
+        }
+        if (left.getSize() < right.getSize()) {
+            var swap = left;
+            left = right;
+            right = swap;
+        }
+        left.absorb(right);
+        networks.remove(right);
+        return left;
+    }
+
+    private void removeNode(int id) {
+        var chunk = store.chunks[id];
+        chunk.removeNode(id);
+        var network = store.networks[id];
+        network.remove(id);
+        var endpoint = store.endpoints[id];
+        if (endpoint != null) {
+            if (state != null && endpoint.routes != null) {
+                state.keep(store, id, endpoint.routes);
+            }
+            endpoint.routes = null;
+            endpoint.search = null;
+        }
+        ++version;
+        int count = 0;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = store.unlink(id, d);
+            if (neighbour != EnergyNodeStore.NONE) {
+                store.versions[neighbour] = version;
+                detached[count++] = neighbour;
+            }
+        }
+        store.remove(id);
+        release(chunk);
+        if (count > 1) {
+            var starts = new long[count];
+            for (int i = 0; i < count; i++) {
+                starts[i] = store.positions[detached[i]];
+            }
+            splits.add(starts);
+        }
+        if (network.getSize() == 0) {
+            networks.remove(network);
+        }
+    }
+
+    /**
+     * Detect components, detached from networks of former neighbours of removed node.<br/>
+     * Neighbours are grouped by their current networks, as networks could be changed since node removal,
+     * removed neighbours are skipped.
+     *
+     * @param starts packed positions of former neighbours
+     */
+    private void split(@NotNull long[] starts) {
+        int count = 0;
+        for (var pos : starts) {
+            int id = store.get(pos);
+            if (id != EnergyNodeStore.NONE) {
+                detached[count++] = id;
+            }
+        }
+        int from = 0;
+        while (from < count) {
+            var network = store.networks[detached[from]];
+            int to = from + 1;
+            for (int i = to; i < count; i++) {
+                int id = detached[i];
+                if (store.networks[id] == network) {
+                    detached[i] = detached[to];
+                    detached[to++] = id;
+                }
+            }
+            for (var component : splitter.split(store, Arrays.copyOfRange(detached, from, to), to - from)) {
+                var split = new EnergyNetwork(store, statistics);
+                for (int i = 0; i < component.size(); i++) {
+                    int node = component.getInt(i);
+                    network.remove(node);
+                    split.add(node);
+                }
+                networks.add(split);
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Queue burned cables, queued node stays burning and blocks energy until it removed from graph
+     */
+    private void burn() {
+        for (int i = 0; i < burned.size(); i++) {
+            int id = burned.getInt(i);
+            var pos = store.positions[id];
+            if (world != null) {
+                burnQueue.add(pos);
+                store.networks[id].invalidatePlan();
+            } else {
+                var block = getIndexedBlock(pos);
+                if (block != null) {
+                    remove(pos, block);
+                }
+                store.burning[id] = false;
+            }
+        }
+        burned.clear();
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Localized split detection of energy network after node removal.<br/>
+ * Breadth-first searches started from all neighbours of removed node and advanced in turns.
+ * Searches that met each other are merged.
+ * Search group that exhausted its frontier without meeting others is a detached component.
+ * Detection stops as soon as only one group is left, so cost is proportional to size of detached parts, not whole network.<br/>
+ * Searches walk links of {@link EnergyNodeStore}, visited nodes are kept in search map,
+ * so nodes don't carry search state.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyNetworkSplitter {
+    private final int[] groups = new int[EnergyNodeStore.SIDES];
+    private final boolean[] finished = new boolean[EnergyNodeStore.SIDES];
+    private final IntArrayFIFOQueue[] queues = new IntArrayFIFOQueue[EnergyNodeStore.SIDES];
+    private final IntArrayList[] visited = new IntArrayList[EnergyNodeStore.SIDES];
+    /**
+     * Search, that visited node, by node id
+     */
+    private final Int2IntOpenHashMap searches = new Int2IntOpenHashMap();
+
+    EnergyNetworkSplitter() {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new IntArrayFIFOQueue();
+        }
+        searches.defaultReturnValue(-1);
+    }
+
+    /**
+     * Find components, detached from network of passed nodes.<br/>
+     * One of components is always left in original network and not returned.
+     *
+     * @param store nodes of world
+     * @param starts ids of former neighbours of removed node
+     * @param count amount of neighbours
+     * @return list of detached components
+     */
+    @NotNull
+    List<IntArrayList> split(@NotNull EnergyNodeStore store, @NotNull int[] starts, int count) {
+        List<IntArrayList> detached = new ArrayList<>();
+        if (count < 2) {
+            return detached;
+        }
+        for (int i = 0; i < count; i++) {
+            groups[i] = i;
+            finished[i] = false;
+            queues[i].clear();
+            visited[i] = new IntArrayList();
+            mark(starts[i], i);
+        }
+
+        int active = countActiveGroups(count);
+        while (active > 1) {
+            for (int i = 0; i < count; i++) {
+                step(store.links, i);
+            }
+            active = countActiveGroups(count);
+            for (int i = 0; i < count && active > 1; i++) {
+                int group = find(i);
+                if (group != i || finished[group] || !isExhausted(group, count)) {
+                    continue;
+                }
+                finished[group] = true;
+                active--;
+                detached.add(collect(group, count));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            queues[i].clear();
+            visited[i] = null;
+        }
+        searches.clear();
+        return detached;
+    }
+
+    private void step(@NotNull int[] links, int search) {
+        var queue = queues[search];
+        if (queue.isEmpty()) {
+            return;
+        }
+        int base = queue.dequeueInt() * EnergyNodeStore.SIDES;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = links[base + d];
+            if (neighbour == EnergyNodeStore.NONE) {
+                continue;
+            }
+            int visitedBy = searches.get(neighbour);
+            if (visitedBy < 0) {
+                mark(neighbour, search);
+            } else {
+                union(visitedBy, search);
+            }
+        }
+    }
+
+    private void mark(int node, int search) {
+        searches.put(node, search);
+        queues[search].enqueue(node);
+        visited[search].add(node);
+    }
+
+    private boolean isExhausted(int group, int count) {
+        for (int i = 0; i < count; i++) {
+            if (find(i) == group && !queues[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private IntArrayList collect(int group, int count) {
+        var component = new IntArrayList();
+        for (int i = 0; i < count; i++) {
+            if (find(i) == group) {
+                component.addAll(visited[i]);
+            }
+        }
+        return component;
+    }
+
+    private int countActiveGroups(int count) {
+        int active = 0;
+        for (int i = 0; i < count; i++) {
+            if (find(i) == i && !finished[i]) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private int find(int search) {
+        while (groups[search] != search) {
+            groups[search] = groups[groups[search]];
+            search = groups[search];
+        }
+        return search;
+    }
+
+    private void union(int left, int right) {
+        int leftGroup = find(left);
+        int rightGroup = find(right);
+        if (leftGroup == rightGroup) {
+            return;
+        }
+        if (leftGroup < rightGroup) {
+            groups[rightGroup] = leftGroup;
+        } else {
+            groups[leftGroup] = rightGroup;
+        }
+    }
+}
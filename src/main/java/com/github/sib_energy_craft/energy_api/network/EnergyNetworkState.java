@@ -0,0 +1,424 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.utils.Identifiers;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import lombok.extern.slf4j.Slf4j;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.PersistentState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Persisted routes of energy networks of one world.<br/>
+ * Routes of every supplier are stored in compact binary form: positions as zigzag varint deltas of coordinates
+ * and route tree as varint distance to parent entry, costs are not stored and recomputed from cables resistance.<br/>
+ * Loaded routes are kept as pending snapshots and restored lazily, when supplier and all route nodes are loaded,
+ * snapshot with nodes in not loaded chunks waits for them, so part of network, loaded before the rest, doesn't drop it.
+ * Each route node is validated on restore: it should be linked to its parent, fingerprint of route nodes
+ * should be the same as on save and no node, reachable from route, should be missing from route,
+ * so restored routes are the same as computed ones.<br/>
+ * Routes of unloaded suppliers are kept as snapshots too, snapshots of not loaded chunks are written back on save.
+ * While manager is suspended, all snapshots are written back.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@Slf4j
+final class EnergyNetworkState extends PersistentState {
+    private static final String ID = Identifiers.MOD_NAMESPACE + "_energy_networks";
+    private static final String FORMAT = "Format";
+    private static final String ROUTES = "Routes";
+    private static final int FORMAT_VERSION = 2;
+
+    private final Long2ObjectMap<Snapshot> pending = new Long2ObjectOpenHashMap<>();
+    private ServerWorld world;
+    private EnergyNetworkManager manager;
+
+    /**
+     * Get or create state of world
+     *
+     * @param world game world
+     * @param manager network manager of world
+     * @return world state
+     */
+    @NotNull
+    static EnergyNetworkState get(@NotNull ServerWorld world, @NotNull EnergyNetworkManager manager) {
+        var state = world.getPersistentStateManager().getOrCreate(
+                EnergyNetworkState::fromNbt,
+                EnergyNetworkState::new,
+                ID
+        );
+        state.world = world;
+        state.manager = manager;
+        return state;
+    }
+
+    @NotNull
+    private static EnergyNetworkState fromNbt(@NotNull NbtCompound nbt) {
+        var state = new EnergyNetworkState();
+        if (nbt.getInt(FORMAT) != FORMAT_VERSION || !nbt.contains(ROUTES, NbtElement.BYTE_ARRAY_TYPE)) {
+            return state;
+        }
+        var reader = new Reader(nbt.getByteArray(ROUTES));
+        int count = 0;
+        try {
+            count = reader.readVarInt();
+            for (int i = 0; i < count; i++) {
+                int from = reader.position;
+                var pos = BlockPos.asLong(reader.readZigZag(), reader.readZigZag(), reader.readZigZag());
+                var fingerprint = reader.readLong();
+                int routeSize = reader.readVarInt();
+                int length = reader.readVarInt();
+                int entries = reader.position;
+                reader.position += length;
+                if (length < 0 || routeSize < 0 || routeSize > length || reader.position > reader.data.length) {
+                    throw new ArrayIndexOutOfBoundsException("Routes of " + BlockPos.fromLong(pos) + " are truncated");
+                }
+                state.pending.put(pos, new Snapshot(reader.data, from, reader.position, entries, fingerprint, routeSize));
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // snapshots read so far are still valid, the rest of routes is recomputed
+            log.warn("Energy network routes are corrupted, loaded {} of {} snapshots: {}",
+                    state.pending.size(), count, e.getMessage());
+        }
+        return state;
+    }
+
+    /**
+     * Check is any persisted routes waiting for restore
+     *
+     * @return true - has pending routes, false - otherwise
+     */
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Check is state has persisted routes of supplier
+     *
+     * @param pos supplier position
+     * @return true - has routes, false - otherwise
+     */
+    boolean isPending(long pos) {
+        return pending.containsKey(pos);
+    }
+
+    /**
+     * Keep routes of removed supplier as snapshot, so they can be restored when supplier loaded again
+     *
+     * @param store nodes of world
+     * @param supplier supplier node id
+     * @param routes supplier routes
+     */
+    void keep(@NotNull EnergyNodeStore store, int supplier, @NotNull EnergyRoutes routes) {
+        var out = new ByteArrayOutputStream();
+        var entries = new ByteArrayOutputStream();
+        writeRoutes(out, entries, store, supplier, routes);
+        var data = out.toByteArray();
+        pending.put(store.positions[supplier], new Snapshot(data, 0, data.length, data.length - entries.size(),
+                getFingerprint(store, supplier, routes), routes.size));
+    }
+
+    /**
+     * Restore persisted routes of supplier, if route nodes are the same as on save.<br/>
+     * Snapshot is dropped if it is restored, outdated or corrupted,
+     * and kept if some route node is in not loaded chunk, so restore can be retried, when chunk is loaded.
+     *
+     * @param store nodes of world
+     * @param supplier supplier node
+     * @param version current topology version
+     * @return restored routes or null
+     */
+    @Nullable
+    EnergyRoutes restore(@NotNull EnergyNodeStore store,
+                         @NotNull EnergyEndpoint supplier,
+                         long version) {
+        var pos = store.positions[supplier.id];
+        var snapshot = pending.get(pos);
+        var network = store.networks[supplier.id];
+        if (snapshot == null || network == null) {
+            return null;
+        }
+        try {
+            return decode(snapshot, store, supplier.id, network, version);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            pending.remove(pos);
+            log.warn("Energy routes of supplier at {} are corrupted: {}", BlockPos.fromLong(pos), e.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private EnergyRoutes decode(@NotNull Snapshot snapshot,
+                                @NotNull EnergyNodeStore store,
+                                int supplier,
+                                @NotNull EnergyNetwork network,
+                                long version) {
+        var pos = store.positions[supplier];
+        var size = snapshot.routeSize;
+        var routeNodes = new int[size];
+        var routeParents = new int[size];
+        var routeCosts = new long[size];
+        var fingerprint = store.getFingerprint(supplier);
+        var reader = new Reader(snapshot.data);
+        reader.position = snapshot.entries;
+        int x = BlockPos.unpackLongX(pos);
+        int y = BlockPos.unpackLongY(pos);
+        int z = BlockPos.unpackLongZ(pos);
+        for (int i = 0; i < size; i++) {
+            x += reader.readZigZag();
+            y += reader.readZigZag();
+            z += reader.readZigZag();
+            int parentDistance = reader.readVarInt();
+            var nodePos = BlockPos.asLong(x, y, z);
+            int node = store.get(nodePos);
+            if (node == EnergyNodeStore.NONE && !isChunkLoaded(nodePos)) {
+                return null;
+            }
+            int parent = parentDistance == 0 ? -1 : i - parentDistance;
+            if (node == EnergyNodeStore.NONE || store.networks[node] != network || parentDistance > i ||
+                    !isLinked(store, parent < 0 ? supplier : routeNodes[parent], node)) {
+                pending.remove(pos);
+                return null;
+            }
+            routeNodes[i] = node;
+            routeParents[i] = parent;
+            routeCosts[i] = parent < 0 ? 0 : routeCosts[parent] + store.getResistance(routeNodes[parent]);
+            fingerprint ^= store.getFingerprint(node);
+        }
+        pending.remove(pos);
+        if (fingerprint != snapshot.fingerprint || !isComplete(store, supplier, routeNodes, routeCosts)) {
+            return null;
+        }
+        return new EnergyRoutes(routeNodes, routeParents, routeCosts, size, version, network);
+    }
+
+    /**
+     * Check is energy can be transferred from node to its neighbour
+     */
+    private static boolean isLinked(@NotNull EnergyNodeStore store, int from, int to) {
+        int base = from * EnergyNodeStore.SIDES;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            if (store.links[base + d] == to) {
+                return store.canTransferTo(from, d, to);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check is every node, that route search would reach from supplier and route cables, is in routes,
+     * e.g. node of chunk, that was not loaded on save, is connected to route now
+     */
+    private static boolean isComplete(@NotNull EnergyNodeStore store,
+                                      int supplier,
+                                      @NotNull int[] routeNodes,
+                                      @NotNull long[] routeCosts) {
+        var reached = new IntOpenHashSet(routeNodes);
+        if (!isReachedAll(store, supplier, supplier, reached)) {
+            return false;
+        }
+        for (int i = 0; i < routeNodes.length; i++) {
+            int node = routeNodes[i];
+            if (store.isCable(node) && routeCosts[i] + store.getResistance(node) < EnergyRouteSolver.MAX_ROUTE_COST &&
+                    !isReachedAll(store, supplier, node, reached)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isReachedAll(@NotNull EnergyNodeStore store,
+                                        int supplier,
+                                        int node,
+                                        @NotNull IntOpenHashSet reached) {
+        int base = node * EnergyNodeStore.SIDES;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = store.links[base + d];
+            if (neighbour != EnergyNodeStore.NONE && neighbour != supplier &&
+                    store.canTransferTo(node, d, neighbour) && !reached.contains(neighbour)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get order independent hash of supplier and route nodes positions and transfer properties
+     */
+    private static long getFingerprint(@NotNull EnergyNodeStore store, int supplier, @NotNull EnergyRoutes routes) {
+        var fingerprint = store.getFingerprint(supplier);
+        for (int i = 0; i < routes.size; i++) {
+            fingerprint ^= store.getFingerprint(routes.nodes[i]);
+        }
+        return fingerprint;
+    }
+
+    @NotNull
+    @Override
+    public NbtCompound writeNbt(@NotNull NbtCompound nbt) {
+        var out = new ByteArrayOutputStream();
+        var entries = new ByteArrayOutputStream();
+        int count = 0;
+        var written = new LongOpenHashSet();
+        if (manager != null) {
+            for (var network : manager.getNetworks()) {
+                var store = network.getStore();
+                var suppliers = network.getSuppliers();
+                for (int s = 0; s < network.getSupplierCount(); s++) {
+                    var supplier = suppliers[s];
+                    var routes = supplier.routes;
+                    if (routes == null || routes.dirty) {
+                        continue;
+                    }
+                    writeRoutes(out, entries, store, supplier.id, routes);
+                    written.add(store.positions[supplier.id]);
+                    count++;
+                }
+            }
+        }
+        for (var entry : pending.long2ObjectEntrySet()) {
+            var pos = entry.getLongKey();
+            if (!written.contains(pos) && (manager == null || manager.isSuspended() || !isChunkLoaded(pos))) {
+                var snapshot = entry.getValue();
+                out.write(snapshot.data, snapshot.from, snapshot.to - snapshot.from);
+                count++;
+            }
+        }
+        var routes = new ByteArrayOutputStream(out.size() + 5);
+        writeVarInt(routes, count);
+        routes.write(out.toByteArray(), 0, out.size());
+        nbt.putInt(FORMAT, FORMAT_VERSION);
+        nbt.putByteArray(ROUTES, routes.toByteArray());
+        return nbt;
+    }
+
+    /**
+     * Snapshot of loaded chunk without supplier is outdated, e.g. supplier was broken
+     */
+    private boolean isChunkLoaded(long pos) {
+        return world != null && world.isChunkLoaded(EnergyChunk.toChunkPos(pos));
+    }
+
+    private static void writeRoutes(@NotNull ByteArrayOutputStream out,
+                                    @NotNull ByteArrayOutputStream entries,
+                                    @NotNull EnergyNodeStore store,
+                                    int supplier,
+                                    @NotNull EnergyRoutes routes) {
+        var pos = store.positions[supplier];
+        int x = BlockPos.unpackLongX(pos);
+        int y = BlockPos.unpackLongY(pos);
+        int z = BlockPos.unpackLongZ(pos);
+        writeZigZag(out, x);
+        writeZigZag(out, y);
+        writeZigZag(out, z);
+        writeLong(out, getFingerprint(store, supplier, routes));
+        writeVarInt(out, routes.size);
+        entries.reset();
+        for (int i = 0; i < routes.size; i++) {
+            var nodePos = store.positions[routes.nodes[i]];
+            int nodeX = BlockPos.unpackLongX(nodePos);
+            int nodeY = BlockPos.unpackLongY(nodePos);
+            int nodeZ = BlockPos.unpackLongZ(nodePos);
+            writeZigZag(entries, nodeX - x);
+            writeZigZag(entries, nodeY - y);
+            writeZigZag(entries, nodeZ - z);
+            int parent = routes.parents[i];
+            writeVarInt(entries, parent < 0 ? 0 : i - parent);
+            x = nodeX;
+            y = nodeY;
+            z = nodeZ;
+        }
+        writeVarInt(out, entries.size());
+        out.write(entries.toByteArray(), 0, entries.size());
+    }
+
+    private static void writeVarInt(@NotNull ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeZigZag(@NotNull ByteArrayOutputStream out, int value) {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static void writeLong(@NotNull ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Persisted routes of one supplier, bytes from {@code from} to {@code to} are the whole encoded record
+     */
+    private static final class Snapshot {
+        private final byte[] data;
+        private final int from;
+        private final int to;
+        private final int entries;
+        /**
+         * Fingerprint of supplier and route nodes
+         */
+        private final long fingerprint;
+        private final int routeSize;
+
+        private Snapshot(@NotNull byte[] data,
+                         int from,
+                         int to,
+                         int entries,
+                         long fingerprint,
+                         int routeSize) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.entries = entries;
+            this.fingerprint = fingerprint;
+            this.routeSize = routeSize;
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(@NotNull byte[] data) {
+            this.data = data;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                var b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new ArrayIndexOutOfBoundsException("VarInt is too long");
+        }
+
+        private int readZigZag() {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+    }
+}
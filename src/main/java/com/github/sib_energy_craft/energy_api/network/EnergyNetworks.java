@@ -0,0 +1,257 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of energy network engine.<br/>
+ * Engine is disabled by default, so default suppliers and cables tickers deliver energy as before.
+ * Engine is enabled by {@link #setEnabled(boolean)} or by system property {@value #ENABLED_PROPERTY}.
+ * While engine is enabled, energy of suppliers and cables is delivered by {@link EnergyNetwork}s
+ * and default suppliers and cables tickers do nothing.<br/>
+ * Networks of all worlds are ticked at the start of server tick, delivery planning is done in parallel.<br/>
+ * Engine keeps index of loaded energy blocks by chunk, which is used by default tickers too, see {@link #getEnergyBlock(World, BlockPos)}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EnergyNetworks {
+    /**
+     * System property, that enables engine on start, e.g. {@code -Dsib_energy_craft.energy_networks=true}
+     */
+    public static final String ENABLED_PROPERTY = "sib_energy_craft.energy_networks";
+    private static final Map<ServerWorld, EnergyNetworkManager> MANAGERS = new ConcurrentHashMap<>();
+    private static final EnergyTickScheduler SCHEDULER = new EnergyTickScheduler(
+            Runtime.getRuntime().availableProcessors() - 1
+    );
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static volatile EnergyDistributionPolicy distributionPolicy = EnergyDistributionPolicy.OFFER_ALL;
+    private static volatile long tickBudget;
+
+    /**
+     * Check is energy network engine enabled
+     *
+     * @return true - enabled, false - otherwise
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable energy network engine.<br/>
+     * If engine disabled, then suppliers and cables ticked by default tickers.
+     * Networks are built from loaded energy blocks on next server tick after engine enabled
+     * and dropped on next server tick after engine disabled.
+     *
+     * @param enabled enable flag
+     */
+    public static void setEnabled(boolean enabled) {
+        EnergyNetworks.enabled = enabled;
+    }
+
+    /**
+     * Get policy of energy distribution between consumers
+     *
+     * @return distribution policy
+     */
+    @NotNull
+    public static EnergyDistributionPolicy getDistributionPolicy() {
+        return distributionPolicy;
+    }
+
+    /**
+     * Set policy of energy distribution between consumers of all networks
+     *
+     * @param distributionPolicy distribution policy
+     */
+    public static void setDistributionPolicy(@NotNull EnergyDistributionPolicy distributionPolicy) {
+        EnergyNetworks.distributionPolicy = distributionPolicy;
+    }
+
+    /**
+     * Get time budget of incremental work per tick
+     *
+     * @return budget in nanoseconds, 0 - unlimited
+     */
+    public static long getTickBudget() {
+        return tickBudget;
+    }
+
+    /**
+     * Set time budget of incremental work per tick: route searches, graph rebuilds, placed blocks, split detection
+     * and restore of persisted routes.<br/>
+     * Work, that doesn't fit into budget, is postponed to next ticks, see {@link EnergyNetworkManager#getRouteBacklog()},
+     * meanwhile networks deliver energy by their last valid routes.
+     * Budget is counted from the start of energy tick, first unit of work is done on every tick.
+     *
+     * @param tickBudget budget in nanoseconds, 0 - unlimited
+     */
+    public static void setTickBudget(long tickBudget) {
+        EnergyNetworks.tickBudget = Math.max(0, tickBudget);
+    }
+
+    /**
+     * Get energy network manager of world
+     *
+     * @param world game world
+     * @return network manager
+     */
+    @NotNull
+    public static EnergyNetworkManager get(@NotNull ServerWorld world) {
+        return MANAGERS.computeIfAbsent(world, EnergyNetworkManager::new);
+    }
+
+    /**
+     * Get loaded energy block from chunk index of world.<br/>
+     * Unlike {@link World#getBlockEntity(BlockPos)} it doesn't look up chunks,
+     * blocks of not loaded and not ticked chunks are not returned.
+     * On client world block entity is returned as is.
+     *
+     * @param world game world
+     * @param pos block position
+     * @return energy block or null
+     */
+    @Nullable
+    public static Object getEnergyBlock(@NotNull World world, @NotNull BlockPos pos) {
+        if (world instanceof ServerWorld serverWorld) {
+            return get(serverWorld).getEnergyBlock(pos.asLong());
+        }
+        return world.getBlockEntity(pos);
+    }
+
+    /**
+     * Get loaded energy blocks of chunk without scanning chunk block entities
+     *
+     * @param world game world
+     * @param chunkPos chunk position
+     * @return unmodifiable collection of energy blocks
+     */
+    @NotNull
+    public static Collection<Object> getEnergyBlocks(@NotNull ServerWorld world, @NotNull ChunkPos chunkPos) {
+        return get(world).getEnergyBlocks(chunkPos.toLong());
+    }
+
+    /**
+     * Get version of energy blocks placement around block, see {@link EnergyNetworkManager#getPlacementVersion(long)}
+     *
+     * @param world game world
+     * @param pos block position
+     * @return placement version
+     */
+    public static long getPlacementVersion(@NotNull ServerWorld world, @NotNull BlockPos pos) {
+        return get(world).getPlacementVersion(pos.asLong());
+    }
+
+    /**
+     * Schedule burn out of overloaded cable.<br/>
+     * Cable is destroyed in batch with other burned cables of world at the end of server tick.
+     *
+     * @param world game world
+     * @param pos cable position
+     */
+    public static void burn(@NotNull ServerWorld world, @NotNull BlockPos pos) {
+        get(world).burn(pos.asLong());
+    }
+
+    /**
+     * Check is cable scheduled to burn out
+     *
+     * @param world game world
+     * @param pos cable position
+     * @return true - cable burns out, false - otherwise
+     */
+    public static boolean isBurning(@NotNull ServerWorld world, @NotNull BlockPos pos) {
+        var manager = MANAGERS.get(world);
+        return manager != null && manager.isBurning(pos.asLong());
+    }
+
+    /**
+     * Notify engine that energy block changed its energy sides, resistance or energy level
+     *
+     * @param world game world
+     * @param pos block position
+     */
+    public static void invalidate(@NotNull World world, @NotNull BlockPos pos) {
+        if (world instanceof ServerWorld serverWorld) {
+            get(serverWorld).invalidate(pos.asLong());
+        }
+    }
+
+    /**
+     * Notify engine that energy block changed its state in a way, that can change energy flow.<br/>
+     * E.g. supplier got energy to supply or consumer got free space in inventory.
+     * Network of the block will be woken up, if it is sleeping.
+     *
+     * @param world game world
+     * @param pos block position
+     */
+    public static void wakeUp(@NotNull World world, @NotNull BlockPos pos) {
+        if (world instanceof ServerWorld serverWorld) {
+            var manager = MANAGERS.get(serverWorld);
+            if (manager != null) {
+                manager.wakeUp(pos.asLong());
+            }
+        }
+    }
+
+    /**
+     * Register engine listeners.<br/>
+     * Called once on mod initialization.
+     */
+    public static void register() {
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) ->
+                get(world).add(blockEntity.getPos().asLong(), blockEntity));
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            var manager = MANAGERS.get(world);
+            if (manager != null) {
+                manager.remove(blockEntity.getPos().asLong(), blockEntity);
+            }
+        });
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            var manager = MANAGERS.get(world);
+            if (manager != null) {
+                manager.updateChunk(chunk.getPos().toLong());
+            }
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            var manager = MANAGERS.get(world);
+            if (manager != null) {
+                manager.freezeChunk(chunk.getPos().toLong());
+            }
+        });
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            for (var manager : MANAGERS.values()) {
+                manager.setSuspended(!enabled);
+                manager.updateChunks();
+            }
+            if (!enabled) {
+                return;
+            }
+            for (var world : server.getWorlds()) {
+                SCHEDULER.add(get(world));
+            }
+            SCHEDULER.tick(tickBudget);
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            for (var manager : MANAGERS.values()) {
+                manager.burnQueued();
+            }
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> MANAGERS.remove(world));
+    }
+}
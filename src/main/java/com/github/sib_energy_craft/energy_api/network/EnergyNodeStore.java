@@ -0,0 +1,379 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.supplier.EnergyOfferCache;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.EqualsAndHashCode;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Packed nodes of energy graph of one world.<br/>
+ * Node is int id, node data is kept in primitive arrays indexed by id: packed position, ids of connected neighbours
+ * by direction id, topology versions, network and chunk membership. Cable node is not an object at all,
+ * suppliers and consumers have {@link EnergyEndpoint} with block references and delivery state.<br/>
+ * Transfer properties of nodes - resistance, capacity and sides - are interned into kinds,
+ * so all cables of one type share one kind entry.<br/>
+ * Ids of removed nodes are reused after {@link #recycle()}. Routes keep ids of nodes,
+ * node, that got reused id, is recognized by {@link #addedVersions}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyNodeStore {
+    static final Direction[] DIRECTIONS = Direction.values();
+    static final int SIDES = DIRECTIONS.length;
+    /**
+     * Id of missing node
+     */
+    static final int NONE = -1;
+    private static final int ALL_SIDES = (1 << SIDES) - 1;
+    private static final int[] OPPOSITES = new int[SIDES];
+
+    static {
+        for (var direction : DIRECTIONS) {
+            OPPOSITES[direction.getId()] = direction.getOpposite().getId();
+        }
+    }
+
+    private final Long2IntOpenHashMap ids = new Long2IntOpenHashMap();
+    /**
+     * Packed block position
+     */
+    long[] positions = new long[0];
+    /**
+     * Ids of connected neighbours, {@link #SIDES} per node, indexed by direction id, {@link #NONE} if not connected
+     */
+    int[] links = new int[0];
+    /**
+     * Kind of node transfer properties
+     */
+    int[] kinds = new int[0];
+    /**
+     * Topology version of last node neighbours change
+     */
+    long[] versions = new long[0];
+    /**
+     * Topology version, node was added on
+     */
+    long[] addedVersions = new long[0];
+    /**
+     * Network of node, null if node is removed
+     */
+    EnergyNetwork[] networks = new EnergyNetwork[0];
+    /**
+     * Index of node in network
+     */
+    int[] indices = new int[0];
+    /**
+     * Index entry of node chunk
+     */
+    EnergyChunk[] chunks = new EnergyChunk[0];
+    /**
+     * Index of node in chunk nodes
+     */
+    int[] chunkIndices = new int[0];
+    boolean[] burning = new boolean[0];
+    /**
+     * Supplier or consumer state of node, null for cables
+     */
+    EnergyEndpoint[] endpoints = new EnergyEndpoint[0];
+    private int limit;
+    private int size;
+    private final IntArrayList free = new IntArrayList();
+    private final IntArrayList released = new IntArrayList();
+
+    private final Object2IntOpenHashMap<Kind> kindIds = new Object2IntOpenHashMap<>();
+    private long[] resistances = new long[0];
+    private long[] thresholds = new long[0];
+    private int[] outputSides = new int[0];
+    private int[] inputSides = new int[0];
+    private boolean[] cables = new boolean[0];
+    private boolean[] shocking = new boolean[0];
+
+    EnergyNodeStore() {
+        ids.defaultReturnValue(NONE);
+    }
+
+    /**
+     * Get id of node
+     *
+     * @param pos packed block position
+     * @return node id or {@link #NONE}
+     */
+    int get(long pos) {
+        return ids.get(pos);
+    }
+
+    /**
+     * Add node of energy block without links
+     *
+     * @param pos packed block position
+     * @param block energy block
+     * @param version current topology version
+     * @return node id
+     */
+    int add(long pos, @NotNull Object block, long version) {
+        int id;
+        if (!free.isEmpty()) {
+            id = free.popInt();
+        } else {
+            if (limit == positions.length) {
+                grow(Math.max(16, limit * 2));
+            }
+            id = limit++;
+        }
+        ids.put(pos, id);
+        positions[id] = pos;
+        Arrays.fill(links, id * SIDES, id * SIDES + SIDES, NONE);
+        kinds[id] = getKind(block);
+        versions[id] = version;
+        addedVersions[id] = version;
+        burning[id] = false;
+        endpoints[id] = EnergyEndpoint.of(id, block);
+        size++;
+        return id;
+    }
+
+    /**
+     * Remove node, node should be unlinked before.<br/>
+     * Node data is kept until {@link #recycle()}, so routes with removed node can still be persisted.
+     *
+     * @param id node id
+     */
+    void remove(int id) {
+        ids.remove(positions[id]);
+        networks[id] = null;
+        chunks[id] = null;
+        endpoints[id] = null;
+        released.add(id);
+        size--;
+    }
+
+    /**
+     * Allow reuse of ids of removed nodes
+     */
+    void recycle() {
+        free.addAll(released);
+        released.clear();
+    }
+
+    /**
+     * Remove all nodes
+     */
+    void clear() {
+        ids.clear();
+        Arrays.fill(networks, 0, limit, null);
+        Arrays.fill(chunks, 0, limit, null);
+        Arrays.fill(endpoints, 0, limit, null);
+        free.clear();
+        released.clear();
+        limit = 0;
+        size = 0;
+    }
+
+    /**
+     * Get amount of nodes
+     *
+     * @return amount of nodes
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Link nodes in direction
+     *
+     * @param id node id
+     * @param direction direction id from node to neighbour
+     * @param neighbour neighbour id
+     */
+    void link(int id, int direction, int neighbour) {
+        links[id * SIDES + direction] = neighbour;
+        links[neighbour * SIDES + OPPOSITES[direction]] = id;
+    }
+
+    /**
+     * Unlink node from neighbour in direction
+     *
+     * @param id node id
+     * @param direction direction id from node to neighbour
+     * @return former neighbour id or {@link #NONE}
+     */
+    int unlink(int id, int direction) {
+        int neighbour = links[id * SIDES + direction];
+        if (neighbour != NONE) {
+            links[id * SIDES + direction] = NONE;
+            links[neighbour * SIDES + OPPOSITES[direction]] = NONE;
+        }
+        return neighbour;
+    }
+
+    /**
+     * Check is energy can be transferred from node to neighbour
+     *
+     * @param id node id
+     * @param direction direction id from node to neighbour
+     * @param neighbour neighbour id
+     * @return true - energy can be transferred, false - otherwise
+     */
+    boolean canTransferTo(int id, int direction, int neighbour) {
+        return neighbour != id &&
+                (outputSides[kinds[id]] & (1 << direction)) != 0 &&
+                (inputSides[kinds[neighbour]] & (1 << OPPOSITES[direction])) != 0;
+    }
+
+    /**
+     * Check is nodes connected in any direction
+     *
+     * @param id node id
+     * @param direction direction id from node to neighbour
+     * @param neighbour neighbour id
+     * @return true - nodes connected, false - otherwise
+     */
+    boolean isConnected(int id, int direction, int neighbour) {
+        return canTransferTo(id, direction, neighbour) || canTransferTo(neighbour, OPPOSITES[direction], id);
+    }
+
+    boolean isCable(int id) {
+        return cables[kinds[id]];
+    }
+
+    boolean isShocking(int id) {
+        return shocking[kinds[id]];
+    }
+
+    /**
+     * Get raw cable resistance
+     *
+     * @param id node id
+     * @return raw resistance, 0 for non cable nodes
+     */
+    long getResistance(int id) {
+        return resistances[kinds[id]];
+    }
+
+    /**
+     * Get raw max energy amount, that node can transfer
+     *
+     * @param id node id
+     * @return raw threshold, {@link Long#MAX_VALUE} for non cable nodes
+     */
+    long getThreshold(int id) {
+        return thresholds[kinds[id]];
+    }
+
+    /**
+     * Get hash of node position and transfer properties, used to validate persisted routes
+     *
+     * @param id node id
+     * @return node fingerprint
+     */
+    long getFingerprint(int id) {
+        int kind = kinds[id];
+        return mix(mix(mix(positions[id]) + resistances[kind]) + thresholds[kind] +
+                ((long) outputSides[kind] << 6 | inputSides[kind]));
+    }
+
+    static boolean isEnergyBlock(@Nullable Object block) {
+        return block instanceof EnergySupplier || block instanceof EnergyConsumer;
+    }
+
+    private int getKind(@NotNull Object block) {
+        var kind = new Kind(block);
+        int id = kindIds.getOrDefault(kind, NONE);
+        if (id != NONE) {
+            return id;
+        }
+        id = kindIds.size();
+        if (id == resistances.length) {
+            int length = Math.max(4, id * 2);
+            resistances = Arrays.copyOf(resistances, length);
+            thresholds = Arrays.copyOf(thresholds, length);
+            outputSides = Arrays.copyOf(outputSides, length);
+            inputSides = Arrays.copyOf(inputSides, length);
+            cables = Arrays.copyOf(cables, length);
+            shocking = Arrays.copyOf(shocking, length);
+        }
+        resistances[id] = kind.resistance;
+        thresholds[id] = kind.threshold;
+        outputSides[id] = kind.outputSides;
+        inputSides[id] = kind.inputSides;
+        cables[id] = kind.cable;
+        shocking[id] = kind.shocking;
+        kindIds.put(kind, id);
+        return id;
+    }
+
+    private void grow(int length) {
+        positions = Arrays.copyOf(positions, length);
+        links = Arrays.copyOf(links, length * SIDES);
+        kinds = Arrays.copyOf(kinds, length);
+        versions = Arrays.copyOf(versions, length);
+        addedVersions = Arrays.copyOf(addedVersions, length);
+        networks = Arrays.copyOf(networks, length);
+        indices = Arrays.copyOf(indices, length);
+        chunks = Arrays.copyOf(chunks, length);
+        chunkIndices = Arrays.copyOf(chunkIndices, length);
+        burning = Arrays.copyOf(burning, length);
+        endpoints = Arrays.copyOf(endpoints, length);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int toMask(@NotNull EnergyConsumer consumer) {
+        int mask = 0;
+        for (var direction : DIRECTIONS) {
+            if (consumer.isConsumeFrom(direction)) {
+                mask |= 1 << direction.getId();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Transfer properties of energy block
+     */
+    @EqualsAndHashCode
+    private static final class Kind {
+        private final long resistance;
+        private final long threshold;
+        private final int outputSides;
+        private final int inputSides;
+        private final boolean cable;
+        private final boolean shocking;
+
+        private Kind(@NotNull Object block) {
+            var supplier = block instanceof EnergySupplier it ? it : null;
+            var consumer = block instanceof EnergyConsumer it ? it : null;
+            var cable = block instanceof EnergyCable it ? it : null;
+            if (cable != null) {
+                this.resistance = Energy.toRaw(cable.getResistance());
+                this.threshold = cable.getEnergyLevel().toRaw;
+                this.outputSides = ALL_SIDES;
+            } else {
+                this.resistance = 0;
+                this.threshold = Long.MAX_VALUE;
+                this.outputSides = supplier == null ? 0 : EnergyOfferCache.toMask(supplier.getSupplyingDirections());
+            }
+            this.inputSides = consumer == null ? 0 : toMask(consumer);
+            this.cable = cable != null;
+            this.shocking = cable != null && !cable.isInsulated();
+        }
+    }
+}
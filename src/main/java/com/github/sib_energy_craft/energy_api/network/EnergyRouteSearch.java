@@ -0,0 +1,223 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra search of shortest resistance paths from supplier, that can be advanced step by step.<br/>
+ * Search keeps its heap and settled routes between steps, so search of big network, that doesn't fit into tick budget,
+ * continues on next tick from the same place instead of starting over.
+ * Search is valid while network topology is not changed, see {@link EnergyNetwork#getRevision()}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyRouteSearch {
+    private long[] distances = new long[0];
+    private int[] parents = new int[0];
+    private int[] positions = new int[0];
+    private int[] heap = new int[0];
+    private int[] heapPositions = new int[0];
+    private int heapSize;
+
+    private int[] routeNodes;
+    private int[] routeParents;
+    private long[] routeCosts;
+    private long[] routeLimits;
+    private int size;
+
+    private EnergyNetwork network;
+    private long revision;
+    private int source;
+    private long version;
+
+    /**
+     * Start search from supplier
+     *
+     * @param network energy network
+     * @param graph packed graph of network
+     * @param source graph index of supplier
+     * @param version current topology version
+     */
+    void start(@NotNull EnergyNetwork network,
+               @NotNull EnergyGraph graph,
+               int source,
+               long version) {
+        int count = graph.getSize();
+        ensureCapacity(count);
+        Arrays.fill(distances, 0, count, Long.MAX_VALUE);
+        Arrays.fill(positions, 0, count, -1);
+        Arrays.fill(heapPositions, 0, count, -1);
+        heapSize = 0;
+        routeNodes = new int[count];
+        routeParents = new int[count];
+        routeCosts = new long[count];
+        routeLimits = new long[count];
+        size = 0;
+        this.network = network;
+        this.revision = network.getRevision();
+        this.source = source;
+        this.version = version;
+        relaxEdges(graph, source, 0, -1);
+    }
+
+    /**
+     * Check is search can be continued in network
+     *
+     * @param network current network of supplier
+     * @return true - network topology is the same as on search start, false - otherwise
+     */
+    boolean isValid(@NotNull EnergyNetwork network) {
+        return this.network == network && revision == network.getRevision();
+    }
+
+    /**
+     * Settle next nodes of search
+     *
+     * @param graph packed graph of network, the same as on search start
+     * @param steps max amount of nodes to settle
+     * @return true - search is finished, false - otherwise
+     */
+    boolean advance(@NotNull EnergyGraph graph, int steps) {
+        var ids = graph.getIds();
+        var relayCosts = graph.getRelayCosts();
+        var thresholds = graph.getThresholds();
+        while (heapSize > 0 && steps-- > 0) {
+            int node = poll();
+            long cost = distances[node];
+            int parent = parents[node];
+            routeNodes[size] = ids[node];
+            routeParents[size] = parent < 0 ? -1 : positions[parent];
+            routeCosts[size] = cost;
+            routeLimits[size] = Energy.addRaw(cost, thresholds[node]);
+            positions[node] = size++;
+
+            long relayCost = relayCosts[node];
+            if (relayCost == EnergyGraph.NOT_RELAY) {
+                continue;
+            }
+            long nextCost = cost + relayCost;
+            if (nextCost < EnergyRouteSolver.MAX_ROUTE_COST) {
+                relaxEdges(graph, node, nextCost, node);
+            }
+        }
+        return heapSize == 0;
+    }
+
+    /**
+     * Get routes of finished search and release them from search
+     *
+     * @return supplier routes
+     */
+    @NotNull
+    EnergyRoutes finish() {
+        var routes = new EnergyRoutes(
+                Arrays.copyOf(routeNodes, size),
+                Arrays.copyOf(routeParents, size),
+                Arrays.copyOf(routeCosts, size),
+                Arrays.copyOf(routeLimits, size),
+                size,
+                version
+        );
+        routeNodes = null;
+        routeParents = null;
+        routeCosts = null;
+        routeLimits = null;
+        network = null;
+        return routes;
+    }
+
+    private void relaxEdges(@NotNull EnergyGraph graph,
+                            int node,
+                            long cost,
+                            int parent) {
+        var edgeTargets = graph.getEdgeTargets();
+        var edgeStarts = graph.getEdgeStarts();
+        for (int e = edgeStarts[node]; e < edgeStarts[node + 1]; e++) {
+            int target = edgeTargets[e];
+            if (target != source && positions[target] < 0) {
+                relax(target, cost, parent);
+            }
+        }
+    }
+
+    private void relax(int node, long cost, int parent) {
+        if (cost >= distances[node]) {
+            return;
+        }
+        distances[node] = cost;
+        parents[node] = parent;
+        if (heapPositions[node] < 0) {
+            heap[heapSize] = node;
+            heapPositions[node] = heapSize;
+            heapSize++;
+        }
+        siftUp(heapPositions[node]);
+    }
+
+    private int poll() {
+        int top = heap[0];
+        heapPositions[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            int last = heap[heapSize];
+            heap[0] = last;
+            heapPositions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        long distance = distances[node];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (distances[parent] <= distance) {
+                break;
+            }
+            heap[index] = parent;
+            heapPositions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        heapPositions[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        long distance = distances[node];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < heapSize && distances[heap[rightIndex]] < distances[child]) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (distance <= distances[child]) {
+                break;
+            }
+            heap[index] = child;
+            heapPositions[child] = index;
+            index = childIndex;
+        }
+        heap[index] = node;
+        heapPositions[node] = index;
+    }
+
+    private void ensureCapacity(int count) {
+        if (distances.length >= count) {
+            return;
+        }
+        distances = new long[count];
+        parents = new int[count];
+        positions = new int[count];
+        heap = new int[count];
+        heapPositions = new int[count];
+    }
+}
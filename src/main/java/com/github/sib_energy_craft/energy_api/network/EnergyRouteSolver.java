@@ -0,0 +1,70 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Dijkstra based solver of shortest resistance paths in energy network.<br/>
+ * Solver traverses packed {@link EnergyGraph} of network and records ids of route nodes.<br/>
+ * Search is done by {@link EnergyRouteSearch} in steps of {@link #SEARCH_STEP} nodes, each step is unit of tick budget.
+ * Search, that is not finished when budget is over, is kept by supplier and continued on next ticks.<br/>
+ * Solver reuses buffers of finished searches between calls, so one solver should be used by one thread at a time.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyRouteSolver {
+    /**
+     * Offer can't pass route with such resistance, without blowing any cable on the path
+     */
+    static final long MAX_ROUTE_COST = EnergyLevel.L5.toRaw;
+    /**
+     * Amount of nodes, settled by one unit of tick budget
+     */
+    static final int SEARCH_STEP = 4096;
+
+    private EnergyRouteSearch search = new EnergyRouteSearch();
+
+    /**
+     * Build routes from source node or continue search, postponed on previous ticks.<br/>
+     * Search, that is started in other network or before network topology changed, is started over.
+     *
+     * @param network energy network
+     * @param source supplier node
+     * @param version current topology version
+     * @param budget budget of current tick
+     * @return supplier routes or null, if search is postponed by budget
+     */
+    @Nullable
+    EnergyRoutes solve(@NotNull EnergyNetwork network,
+                       @NotNull EnergyEndpoint source,
+                       long version,
+                       @NotNull EnergyTickBudget budget) {
+        var postponed = source.search;
+        if (postponed != null && !postponed.isValid(network)) {
+            postponed = null;
+            source.search = null;
+        }
+        if (!budget.tryAcquire()) {
+            return null;
+        }
+        var graph = network.getGraph();
+        var current = postponed;
+        if (current == null) {
+            current = search;
+            current.start(network, graph, network.getStore().indices[source.id], version);
+        }
+        while (!current.advance(graph, SEARCH_STEP)) {
+            if (!budget.tryAcquire()) {
+                if (current == search) {
+                    search = new EnergyRouteSearch();
+                }
+                source.search = current;
+                return null;
+            }
+        }
+        source.search = null;
+        return current.finish();
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shortest resistance paths from supplier to all reachable nodes of network.<br/>
+ * Nodes stored in settle order, so parent of node always placed before node.<br/>
+ * Overload limits of route nodes packed into array, so overload of whole route is checked by one comparison
+ * with {@link #minLimit} and route nodes are not checked one by one while supplier offer fits all cables.<br/>
+ * Routes keep ids of {@link EnergyNodeStore} nodes and are valid while no node on them changed its neighbours after {@link #version}.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyRoutes {
+    /**
+     * Ids of reachable nodes
+     */
+    @NotNull
+    final int[] nodes;
+    /**
+     * Route position of parent node, -1 if node is connected to supplier directly
+     */
+    @NotNull
+    final int[] parents;
+    /**
+     * Raw amount of energy lost before offer reached node
+     */
+    @NotNull
+    final long[] costs;
+    /**
+     * Max raw amount of supplier offer, that node can pass without burning, {@link Long#MAX_VALUE} for consumers
+     */
+    @NotNull
+    final long[] limits;
+    /**
+     * Min of route limits, offer that not exceeds it can't burn any route cable
+     */
+    final long minLimit;
+    final int size;
+    /**
+     * Topology version, routes was valid on
+     */
+    long version;
+    boolean dirty;
+
+    EnergyRoutes(@NotNull int[] nodes,
+                 @NotNull int[] parents,
+                 @NotNull long[] costs,
+                 int size,
+                 long version,
+                 @NotNull EnergyNetwork network) {
+        this(nodes, parents, costs, limits(network.getStore(), nodes, costs, size), size, version);
+    }
+
+    EnergyRoutes(@NotNull int[] nodes,
+                 @NotNull int[] parents,
+                 @NotNull long[] costs,
+                 @NotNull long[] limits,
+                 int size,
+                 long version) {
+        this.nodes = nodes;
+        this.parents = parents;
+        this.costs = costs;
+        this.size = size;
+        this.version = version;
+        this.limits = limits;
+        this.minLimit = min(limits, size);
+    }
+
+    @NotNull
+    private static long[] limits(@NotNull EnergyNodeStore store,
+                                 @NotNull int[] nodes,
+                                 @NotNull long[] costs,
+                                 int size) {
+        var limits = new long[size];
+        for (int i = 0; i < size; i++) {
+            limits[i] = Energy.addRaw(costs[i], store.getThreshold(nodes[i]));
+        }
+        return limits;
+    }
+
+    /**
+     * Check is offer of passed raw amount can burn any route cable
+     *
+     * @param amount raw offer amount
+     * @return true - offer exceeds limit of some route cable, false - otherwise
+     */
+    boolean isOverloadedBy(long amount) {
+        return amount > minLimit;
+    }
+
+    /**
+     * Min reduction in a branch free loop, that can be vectorized by JIT
+     */
+    private static long min(@NotNull long[] values, int size) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Check is node on route position is the same node, that routes were built with.<br/>
+     * Id of removed node can be reused by node, added after routes were valid.
+     *
+     * @param store nodes of world
+     * @param node node id
+     * @return true - node is the same, false - id is reused
+     */
+    boolean isOriginal(@NotNull EnergyNodeStore store, int node) {
+        return store.addedVersions[node] <= version;
+    }
+
+    /**
+     * Check is routes should be recomputed.<br/>
+     * Routes are outdated if source or any route node changed its neighbours or left the network.
+     * Outdated routes are marked dirty, so they are not persisted.
+     *
+     * @param network source network
+     * @param source route source node
+     * @param version current topology version
+     * @return true - routes are outdated, false - otherwise
+     */
+    boolean isOutdated(@NotNull EnergyNetwork network,
+                       @NotNull EnergyEndpoint source,
+                       long version) {
+        var store = network.getStore();
+        if (dirty || store.versions[source.id] > this.version) {
+            dirty = true;
+            return true;
+        }
+        if (this.version == version) {
+            return false;
+        }
+        var networks = store.networks;
+        var versions = store.versions;
+        for (int i = 0; i < size; i++) {
+            int node = nodes[i];
+            if (networks[node] != network || versions[node] > this.version) {
+                dirty = true;
+                return true;
+            }
+        }
+        this.version = version;
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.damage.DamageSources;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Electrocution of entities by uninsulated cables of one world.<br/>
+ * Every tick shocks build spatial hash of cables, energized by delivery plans of networks,
+ * and test bounding boxes of world living entities against it in one sweep, so cables don't query entities around themselves.<br/>
+ * Damage is caused by {@link DamageSources#energy} and scaled by energy level of carried energy.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyShocks {
+    /**
+     * Entity touches cable, if its bounding box is closer than this distance to cable block
+     */
+    private static final double CONTACT_DISTANCE = 0.0625;
+    private static final float DAMAGE_PER_LEVEL = 2.0f;
+    private static final EnergyLevel[] LEVELS = EnergyLevel.values();
+
+    /**
+     * Max raw carried energy amount by packed cable position
+     */
+    private final Long2LongOpenHashMap cells = new Long2LongOpenHashMap();
+    private final List<Entity> shocked = new ArrayList<>();
+    private final List<EnergyLevel> shockLevels = new ArrayList<>();
+
+    /**
+     * Shock entities touching energized cables.<br/>
+     * Should be called from server thread after networks commit.
+     *
+     * @param world game world
+     * @param networks networks of world
+     */
+    void tick(@NotNull ServerWorld world, @NotNull Collection<EnergyNetwork> networks) {
+        cells.clear();
+        for (var network : networks) {
+            var positions = network.getStore().positions;
+            var energized = network.getEnergized();
+            for (int i = 0; i < network.getEnergizedCount(); i++) {
+                var pos = positions[energized[i]];
+                var amount = network.getEnergizedAmount(i);
+                if (amount > cells.get(pos)) {
+                    cells.put(pos, amount);
+                }
+            }
+        }
+        if (cells.isEmpty()) {
+            return;
+        }
+        for (var entity : world.iterateEntities()) {
+            if (!(entity instanceof LivingEntity) || !entity.isAlive() || entity.isSpectator()) {
+                continue;
+            }
+            var amount = getContactAmount(entity);
+            if (amount > 0) {
+                shocked.add(entity);
+                shockLevels.add(getLevel(amount));
+            }
+        }
+        if (shocked.isEmpty()) {
+            return;
+        }
+        var source = DamageSources.energy(world);
+        for (int i = 0; i < shocked.size(); i++) {
+            shocked.get(i).damage(source, (shockLevels.get(i).ordinal() + 1) * DAMAGE_PER_LEVEL);
+        }
+        shocked.clear();
+        shockLevels.clear();
+    }
+
+    /**
+     * Get max raw energy amount of energized cables, that entity touches
+     */
+    private long getContactAmount(@NotNull Entity entity) {
+        var box = entity.getBoundingBox();
+        int minX = MathHelper.floor(box.minX - CONTACT_DISTANCE);
+        int minY = MathHelper.floor(box.minY - CONTACT_DISTANCE);
+        int minZ = MathHelper.floor(box.minZ - CONTACT_DISTANCE);
+        int maxX = MathHelper.floor(box.maxX + CONTACT_DISTANCE);
+        int maxY = MathHelper.floor(box.maxY + CONTACT_DISTANCE);
+        int maxZ = MathHelper.floor(box.maxZ + CONTACT_DISTANCE);
+        long amount = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    amount = Math.max(amount, cells.get(BlockPos.asLong(x, y, z)));
+                }
+            }
+        }
+        return amount;
+    }
+
+    @NotNull
+    private static EnergyLevel getLevel(long amount) {
+        for (var level : LEVELS) {
+            if (amount <= level.toRaw) {
+                return level;
+            }
+        }
+        return LEVELS[LEVELS.length - 1];
+    }
+}
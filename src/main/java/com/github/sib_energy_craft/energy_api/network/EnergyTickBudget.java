@@ -0,0 +1,53 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time budget of incremental work of energy tick: route searches, graph rebuilds, placed blocks, split detection
+ * and restore of persisted routes.<br/>
+ * Work is done in units, unit is started only while tick time is not over budget,
+ * the rest of work is left to next ticks and networks keep delivering energy by their last valid routes.
+ * First unit of tick is always started, so work progresses even if tick is over budget before any unit.<br/>
+ * Units can be acquired from several planning threads.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyTickBudget {
+    /**
+     * Budget without time limit, every unit is started
+     */
+    static final EnergyTickBudget UNLIMITED = new EnergyTickBudget();
+
+    private final AtomicBoolean progressed = new AtomicBoolean();
+    private boolean limited;
+    private long deadline;
+
+    /**
+     * Start budget of new tick
+     *
+     * @param nanos tick budget in nanoseconds, not positive value - unlimited
+     * @param startedAt tick start time, see {@link System#nanoTime()}
+     */
+    void start(long nanos, long startedAt) {
+        limited = nanos > 0;
+        deadline = startedAt + nanos;
+        progressed.set(false);
+    }
+
+    /**
+     * Try to start unit of work
+     *
+     * @return true - unit can be done on current tick, false - unit should be postponed
+     */
+    boolean tryAcquire() {
+        if (!limited) {
+            return true;
+        }
+        if (System.nanoTime() - deadline < 0) {
+            progressed.lazySet(true);
+            return true;
+        }
+        return !progressed.getAndSet(true);
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scheduler of energy networks tick of all worlds.<br/>
+ * Tick is done in three phases:
+ * <ul>
+ *     <li>gather - block changes applied and supplier offers collected on server thread;</li>
+ *     <li>plan - routes recomputed and deliveries planned for all networks in parallel,
+ *     networks are disjoint, so planning of one network can't affect others;</li>
+ *     <li>commit - planned offers delivered on server thread in order of managers and networks.</li>
+ * </ul>
+ * Small amount of work planned on server thread, to not pay for tasks scheduling.<br/>
+ * Route searches and restores of all managers share one {@link EnergyTickBudget}, started with the tick.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyTickScheduler {
+    /**
+     * Minimal amount of nodes, planned by one task
+     */
+    private static final int TASK_NODES = 4096;
+
+    private final ThreadLocal<EnergyRouteSolver> solvers = ThreadLocal.withInitial(EnergyRouteSolver::new);
+    private final List<EnergyNetworkManager> managers = new ArrayList<>();
+    private final List<EnergyNetwork> networks = new ArrayList<>();
+    private final EnergyTickBudget budget = new EnergyTickBudget();
+    private final int parallelism;
+    private ForkJoinPool pool;
+
+    /**
+     * Create scheduler
+     *
+     * @param parallelism amount of planning threads, 1 - plan on server thread only
+     */
+    EnergyTickScheduler(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Add manager to next tick
+     *
+     * @param manager world network manager
+     */
+    void add(@NotNull EnergyNetworkManager manager) {
+        managers.add(manager);
+    }
+
+    /**
+     * Tick all added managers, managers list is cleared after tick
+     *
+     * @param budgetNanos budget of incremental work in nanoseconds, not positive value - unlimited
+     */
+    void tick(long budgetNanos) {
+        budget.start(budgetNanos, System.nanoTime());
+        try {
+            int nodes = 0;
+            for (var manager : managers) {
+                manager.gather(budget);
+                for (var network : manager.getNetworks()) {
+                    if (!network.isActive()) {
+                        continue;
+                    }
+                    networks.add(network);
+                    nodes += network.getSize();
+                }
+            }
+            if (parallelism == 1 || networks.size() < 2 || nodes < TASK_NODES * 2) {
+                var solver = solvers.get();
+                for (var network : networks) {
+                    network.plan(solver, budget);
+                }
+            } else {
+                getPool().invoke(new PlanTask(0, networks.size(), nodes));
+            }
+            for (var manager : managers) {
+                manager.commit();
+            }
+        } finally {
+            managers.clear();
+            networks.clear();
+        }
+    }
+
+    @NotNull
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Energy-Network-Worker-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * Task of planning range of networks
+     */
+    private final class PlanTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int nodes;
+
+        private PlanTask(int from, int to, int nodes) {
+            this.from = from;
+            this.to = to;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1 || nodes < TASK_NODES * 2) {
+                var solver = solvers.get();
+                for (int i = from; i < to; i++) {
+                    networks.get(i).plan(solver, budget);
+                }
+                return;
+            }
+            int middle = from;
+            int leftNodes = 0;
+            while (middle < to - 1 && leftNodes * 2 < nodes) {
+                leftNodes += networks.get(middle++).getSize();
+            }
+            invokeAll(new PlanTask(from, middle, leftNodes), new PlanTask(middle, to, nodes - leftNodes));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.sib_energy_craft.energy_api.statistics;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.constants.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lifetime counter of energy amount.<br/>
+ * Raw amounts, see {@link Energy#getRaw()}, overflow long at about 9.2e8 units of energy,
+ * so counter keeps whole units and fractional part of energy in separate striped adders.
+ * Fractional part is carried into whole units on {@link #normalize()}, which should be called every tick.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class EnergyCounter {
+    private final LongAdder units = new LongAdder();
+    private final LongAdder fraction = new LongAdder();
+
+    /**
+     * Add energy
+     *
+     * @param energy raw energy amount
+     */
+    void add(long energy) {
+        if (energy <= 0) {
+            return;
+        }
+        units.add(energy / Constants.ENERGY_SCALE);
+        fraction.add(energy % Constants.ENERGY_SCALE);
+    }
+
+    /**
+     * Carry accumulated fractional part into whole units, should be called by one thread
+     */
+    void normalize() {
+        var value = fraction.sumThenReset();
+        units.add(value / Constants.ENERGY_SCALE);
+        fraction.add(value % Constants.ENERGY_SCALE);
+    }
+
+    /**
+     * Get counted energy
+     *
+     * @return energy amount with {@link Constants#ENERGY_PRECISION} scale
+     */
+    @NotNull
+    BigDecimal get() {
+        var value = fraction.sum();
+        return BigDecimal.valueOf(units.sum() + value / Constants.ENERGY_SCALE)
+                .add(BigDecimal.valueOf(value % Constants.ENERGY_SCALE, Constants.ENERGY_PRECISION));
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.sib_energy_craft.energy_api.statistics;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Energy system statistics of dimension or energy network.<br/>
+ * Counters are striped, so they can be updated from several threads without contention.
+ * Values added to network statistics are also added to statistics of its dimension.<br/>
+ * Tick time is accumulated during the tick and recorded into rolling histogram on tick completion.<br/>
+ * Energy is counted in whole units and fraction separately, see {@link EnergyCounter}, so lifetime totals don't overflow.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyStatistics {
+    /**
+     * Amount of ticks in dimension tick time histogram, one minute
+     */
+    public static final int WORLD_WINDOW = 1200;
+    /**
+     * Amount of ticks in network tick time histogram, five seconds
+     */
+    public static final int NETWORK_WINDOW = 100;
+
+    private static final Map<World, EnergyStatistics> WORLDS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+
+    @Nullable
+    private final EnergyStatistics parent;
+    private final LongAdder currentTickNanos = new LongAdder();
+    private final LongAdder tickNanos = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder offersCreated = new LongAdder();
+    private final LongAdder offersForwarded = new LongAdder();
+    private final EnergyCounter energyDelivered = new EnergyCounter();
+    private final EnergyCounter energyLost = new EnergyCounter();
+    private final LongAdder explosions = new LongAdder();
+    private final LongAdder routesSolved = new LongAdder();
+    private final RollingHistogram tickTimes;
+
+    /**
+     * Create statistics
+     *
+     * @param parent statistics, that receives all added values, e.g. dimension statistics of network
+     * @param window amount of ticks in tick time histogram
+     */
+    public EnergyStatistics(@Nullable EnergyStatistics parent, int window) {
+        this.parent = parent;
+        this.tickTimes = new RollingHistogram(window);
+    }
+
+    /**
+     * Add time, spent on energy processing in current tick
+     *
+     * @param nanos spent time in nanoseconds
+     */
+    public void addTickNanos(long nanos) {
+        currentTickNanos.add(nanos);
+        if (parent != null) {
+            parent.addTickNanos(nanos);
+        }
+    }
+
+    /**
+     * Add amount of offers, created by suppliers
+     *
+     * @param count amount of offers
+     */
+    public void addOffersCreated(long count) {
+        offersCreated.add(count);
+        if (parent != null) {
+            parent.addOffersCreated(count);
+        }
+    }
+
+    /**
+     * Add amount of offers, passed to consumers and cables
+     *
+     * @param count amount of offers
+     */
+    public void addOffersForwarded(long count) {
+        offersForwarded.add(count);
+        if (parent != null) {
+            parent.addOffersForwarded(count);
+        }
+    }
+
+    /**
+     * Add energy, delivered to consumers by accepted offers
+     *
+     * @param energy raw energy amount, see {@link Energy#getRaw()}
+     */
+    public void addEnergyDelivered(long energy) {
+        energyDelivered.add(energy);
+        if (parent != null) {
+            parent.addEnergyDelivered(energy);
+        }
+    }
+
+    /**
+     * Add energy, lost on cables resistance
+     *
+     * @param energy raw energy amount, see {@link Energy#getRaw()}
+     */
+    public void addEnergyLost(long energy) {
+        energyLost.add(energy);
+        if (parent != null) {
+            parent.addEnergyLost(energy);
+        }
+    }
+
+    /**
+     * Add amount of burned cables
+     *
+     * @param count amount of explosions
+     */
+    public void addExplosions(long count) {
+        explosions.add(count);
+        if (parent != null) {
+            parent.addExplosions(count);
+        }
+    }
+
+    /**
+     * Add amount of supplier route searches
+     *
+     * @param count amount of searches
+     */
+    public void addRoutesSolved(long count) {
+        routesSolved.add(count);
+        if (parent != null) {
+            parent.addRoutesSolved(count);
+        }
+    }
+
+    /**
+     * Complete current tick: record accumulated tick time into histogram and normalize energy counters.<br/>
+     * Should be called once per tick by one thread.
+     */
+    public void completeTick() {
+        var nanos = currentTickNanos.sumThenReset();
+        tickNanos.add(nanos);
+        ticks.increment();
+        tickTimes.record(nanos);
+        energyDelivered.normalize();
+        energyLost.normalize();
+    }
+
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    public long getTickNanos() {
+        return tickNanos.sum();
+    }
+
+    public long getOffersCreated() {
+        return offersCreated.sum();
+    }
+
+    public long getOffersForwarded() {
+        return offersForwarded.sum();
+    }
+
+    /**
+     * Get lifetime amount of delivered energy
+     *
+     * @return energy amount, can exceed max value of {@link Energy}
+     */
+    @NotNull
+    public BigDecimal getEnergyDelivered() {
+        return energyDelivered.get();
+    }
+
+    /**
+     * Get lifetime amount of energy, lost on cables resistance
+     *
+     * @return energy amount, can exceed max value of {@link Energy}
+     */
+    @NotNull
+    public BigDecimal getEnergyLost() {
+        return energyLost.get();
+    }
+
+    public long getExplosions() {
+        return explosions.sum();
+    }
+
+    public long getRoutesSolved() {
+        return routesSolved.sum();
+    }
+
+    /**
+     * Get distribution of tick time in nanoseconds for last ticks
+     *
+     * @return tick time histogram snapshot
+     */
+    @NotNull
+    public RollingHistogram.Snapshot getTickTimes() {
+        return tickTimes.snapshot();
+    }
+
+    /**
+     * Check is statistics collection enabled
+     *
+     * @return true - enabled, false - otherwise
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable statistics collection
+     *
+     * @param enabled enable flag
+     */
+    public static void setEnabled(boolean enabled) {
+        EnergyStatistics.enabled = enabled;
+    }
+
+    /**
+     * Get statistics of dimension
+     *
+     * @param world game world
+     * @return dimension statistics
+     */
+    @NotNull
+    public static EnergyStatistics get(@NotNull World world) {
+        return WORLDS.computeIfAbsent(world, it -> new EnergyStatistics(null, WORLD_WINDOW));
+    }
+
+    /**
+     * Get statistics of dimension, if any energy activity was registered in it
+     *
+     * @param world game world
+     * @return dimension statistics or null
+     */
+    @Nullable
+    public static EnergyStatistics find(@NotNull World world) {
+        return WORLDS.get(world);
+    }
+
+    /**
+     * Register statistics listeners and command.<br/>
+     * Called once on mod initialization.
+     */
+    public static void register() {
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            var statistics = WORLDS.get(world);
+            if (statistics != null && enabled) {
+                statistics.completeTick();
+            }
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> WORLDS.remove(world));
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+                EnergyStatisticsCommand.register(dispatcher));
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.sib_energy_craft.energy_api.statistics;
+
+import com.github.sib_energy_craft.energy_api.network.EnergyNetwork;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworks;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command <code>/energy stats</code> - prints energy statistics of all dimensions
+ * and the slowest energy networks of command source dimension.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class EnergyStatisticsCommand {
+    private static final int TOP_NETWORKS = 5;
+
+    /**
+     * Register command
+     *
+     * @param dispatcher command dispatcher
+     */
+    static void register(@NotNull CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(CommandManager.literal("energy")
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(CommandManager.literal("stats")
+                        .executes(context -> {
+                            printStatistics(context.getSource());
+                            return Command.SINGLE_SUCCESS;
+                        })
+                )
+        );
+    }
+
+    private static void printStatistics(@NotNull ServerCommandSource source) {
+        if (!EnergyStatistics.isEnabled()) {
+            source.sendError(Text.literal("Energy statistics are disabled"));
+            return;
+        }
+        for (var world : source.getServer().getWorlds()) {
+            var statistics = EnergyStatistics.find(world);
+            if (statistics == null) {
+                continue;
+            }
+            var manager = EnergyNetworks.get(world);
+            var networks = manager.getNetworks();
+            int sleeping = 0;
+            for (var network : networks) {
+                if (network.isSleeping()) {
+                    sleeping++;
+                }
+            }
+            source.sendFeedback(Text.literal(String.format(Locale.ROOT,
+                    "[%s] networks: %d (%d sleeping), route backlog: %d, %s",
+                    world.getRegistryKey().getValue(), networks.size(), sleeping, manager.getRouteBacklog(),
+                    format(statistics))), false);
+        }
+        printTopNetworks(source, source.getWorld());
+    }
+
+    private static void printTopNetworks(@NotNull ServerCommandSource source,
+                                         @NotNull ServerWorld world) {
+        var networks = new ArrayList<Map.Entry<EnergyNetwork, Long>>();
+        for (var network : EnergyNetworks.get(world).getNetworks()) {
+            networks.add(Map.entry(network, network.getStatistics().getTickTimes().getMean()));
+        }
+        networks.sort(Map.Entry.<EnergyNetwork, Long>comparingByValue().reversed());
+        for (int i = 0; i < Math.min(TOP_NETWORKS, networks.size()); i++) {
+            var network = networks.get(i).getKey();
+            source.sendFeedback(Text.literal(String.format(Locale.ROOT,
+                    "  #%d size: %d, suppliers: %d, route backlog: %d, %s",
+                    i + 1, network.getSize(), network.getSupplierCount(), network.getRouteBacklog(),
+                    format(network.getStatistics()))), false);
+        }
+    }
+
+    @NotNull
+    private static String format(@NotNull EnergyStatistics statistics) {
+        var tickTimes = statistics.getTickTimes();
+        return String.format(Locale.ROOT,
+                "tick us: mean %.1f, p95 %.1f, max %.1f; offers: created %d, forwarded %d; " +
+                        "energy: delivered %s, lost %s; explosions: %d; routes solved: %d",
+                tickTimes.getMean() / 1000.0, tickTimes.getP95() / 1000.0, tickTimes.getMax() / 1000.0,
+                statistics.getOffersCreated(), statistics.getOffersForwarded(),
+                statistics.getEnergyDelivered().toPlainString(),
+                statistics.getEnergyLost().toPlainString(),
+                statistics.getExplosions(), statistics.getRoutesSolved());
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.sib_energy_craft.energy_api.statistics;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of last recorded values.<br/>
+ * Histogram keeps fixed amount of last values in ring buffer, so recording is cheap,
+ * distribution computed only on {@link #snapshot()}.<br/>
+ * Values should be recorded by one thread.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class RollingHistogram {
+    private final long[] values;
+    private int position;
+    private int size;
+
+    /**
+     * Create histogram
+     *
+     * @param window amount of last values to keep
+     */
+    public RollingHistogram(int window) {
+        this.values = new long[window];
+    }
+
+    /**
+     * Record value, the oldest value is dropped if window is full
+     *
+     * @param value recorded value
+     */
+    public void record(long value) {
+        values[position] = value;
+        position = (position + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Compute distribution of values in window
+     *
+     * @return histogram snapshot
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        int count = size;
+        if (count == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0);
+        }
+        var sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (var value : sorted) {
+            sum += value;
+        }
+        return new Snapshot(
+                count,
+                sum / count,
+                percentile(sorted, 50),
+                percentile(sorted, 95),
+                percentile(sorted, 99),
+                sorted[count - 1]
+        );
+    }
+
+    private static long percentile(@NotNull long[] sorted, int percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Distribution of histogram values
+     *
+     * @since 0.0.5
+     * @author sibmaks
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Snapshot {
+        private final int count;
+        private final long mean;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+    }
+}
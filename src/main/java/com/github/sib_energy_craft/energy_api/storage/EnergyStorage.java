@@ -0,0 +1,323 @@
+package com.github.sib_energy_craft.energy_api.storage;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.utils.Identifiers;
+import lombok.Getter;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Energy storage component of energy blocks.<br/>
+ * Storage keeps raw energy amount, see {@link Energy#getRaw()}, in atomic long and changes it by compare-and-set,
+ * so insert and extract can be called concurrently without locks, e.g. from parallel network planning.<br/>
+ * Space, reserved for offers that are being accepted, is counted in filled amount only, which limits inserts,
+ * while extraction is limited by stored energy, so energy, that is not received yet, can't be extracted.<br/>
+ * Amount of one insert or extract is limited by max input and output, that can't exceed storage energy level.<br/>
+ * Every operation can be simulated, simulation returns the same result as real call but does not change storage.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyStorage {
+    /**
+     * NBT stored energy attribute identifier
+     */
+    public static final String ENERGY = Identifiers.asString("Energy");
+
+    private final AtomicLong stored = new AtomicLong();
+    /**
+     * Stored energy and space, reserved by offers in acceptance, never less than stored energy
+     */
+    private final AtomicLong filled = new AtomicLong();
+    @Getter
+    private final EnergyLevel energyLevel;
+    private final long capacity;
+    private final long maxInput;
+    private final long maxOutput;
+
+    /**
+     * Create storage with input and output limited by energy level only
+     *
+     * @param capacity storage capacity
+     * @param energyLevel storage energy level
+     */
+    public EnergyStorage(@NotNull Energy capacity,
+                         @NotNull EnergyLevel energyLevel) {
+        this(capacity, energyLevel, energyLevel.toBig, energyLevel.toBig);
+    }
+
+    /**
+     * Create storage
+     *
+     * @param capacity storage capacity
+     * @param energyLevel storage energy level
+     * @param maxInput max amount of one insert, capped by energy level
+     * @param maxOutput max amount of one extract, capped by energy level
+     */
+    public EnergyStorage(@NotNull Energy capacity,
+                         @NotNull EnergyLevel energyLevel,
+                         @NotNull Energy maxInput,
+                         @NotNull Energy maxOutput) {
+        var levelRaw = energyLevel.toRaw;
+        this.capacity = capacity.getRaw();
+        this.energyLevel = energyLevel;
+        this.maxInput = Math.min(maxInput.getRaw(), levelRaw);
+        this.maxOutput = Math.min(maxOutput.getRaw(), levelRaw);
+    }
+
+    /**
+     * Insert energy into storage, storage takes only amount that fits capacity and max input
+     *
+     * @param energy raw amount of energy
+     * @param simulate true - only calculate result, false - insert energy
+     * @return raw amount of inserted energy
+     */
+    public long insertRaw(long energy, boolean simulate) {
+        var limit = Math.min(energy, maxInput);
+        if (limit <= 0) {
+            return 0;
+        }
+        while (true) {
+            var current = filled.get();
+            var inserted = Math.min(limit, capacity - current);
+            if (inserted <= 0) {
+                return 0;
+            }
+            if (simulate) {
+                return inserted;
+            }
+            if (filled.compareAndSet(current, current + inserted)) {
+                stored.addAndGet(inserted);
+                return inserted;
+            }
+        }
+    }
+
+    /**
+     * Extract energy from storage, storage gives only amount that it has and not greater than max output
+     *
+     * @param energy raw amount of requested energy
+     * @param simulate true - only calculate result, false - extract energy
+     * @return raw amount of extracted energy
+     */
+    public long extractRaw(long energy, boolean simulate) {
+        var limit = Math.min(energy, maxOutput);
+        if (limit <= 0) {
+            return 0;
+        }
+        while (true) {
+            var current = stored.get();
+            var extracted = Math.min(limit, current);
+            if (extracted <= 0) {
+                return 0;
+            }
+            if (simulate) {
+                return extracted;
+            }
+            if (stored.compareAndSet(current, current - extracted)) {
+                filled.addAndGet(-extracted);
+                return extracted;
+            }
+        }
+    }
+
+    /**
+     * Insert energy into storage, storage takes only amount that fits capacity and max input
+     *
+     * @param energy amount of energy
+     * @param simulate true - only calculate result, false - insert energy
+     * @return inserted energy
+     */
+    @NotNull
+    public Energy insert(@NotNull Energy energy, boolean simulate) {
+        return Energy.ofRaw(insertRaw(energy.getRaw(), simulate));
+    }
+
+    /**
+     * Extract energy from storage, storage gives only amount that it has and not greater than max output
+     *
+     * @param energy requested energy
+     * @param simulate true - only calculate result, false - extract energy
+     * @return extracted energy
+     */
+    @NotNull
+    public Energy extract(@NotNull Energy energy, boolean simulate) {
+        return Energy.ofRaw(extractRaw(energy.getRaw(), simulate));
+    }
+
+    /**
+     * Extract exactly passed amount of energy or nothing.<br/>
+     * Can be used as implementation of {@link com.github.sib_energy_craft.energy_api.supplier.EnergySupplier#supplyEnergy(Energy)}
+     *
+     * @param energy requested energy
+     * @param simulate true - only check, false - extract energy
+     * @return true - energy extracted, false - otherwise
+     */
+    public boolean extractExact(@NotNull Energy energy, boolean simulate) {
+        var amount = energy.getRaw();
+        if (amount > maxOutput) {
+            return false;
+        }
+        while (true) {
+            var current = stored.get();
+            if (current < amount) {
+                return false;
+            }
+            if (simulate) {
+                return true;
+            }
+            if (stored.compareAndSet(current, current - amount)) {
+                filled.addAndGet(-amount);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Receive energy offer into storage.<br/>
+     * Free space reserved before offer accepted, so concurrent inserts can't overfill storage,
+     * reservation is returned if offer was declined. Reserved energy is not stored until offer is accepted,
+     * so it can't be extracted, e.g. by the same storage, that supplies the offer.
+     *
+     * @param energyOffer energy offer
+     * @return true - offer accepted and energy stored, false - otherwise
+     */
+    public boolean receiveOffer(@NotNull EnergyOffer energyOffer) {
+        var amount = energyOffer.getEnergyAmount().getRaw();
+        if (amount <= 0 || amount > maxInput) {
+            return false;
+        }
+        long current;
+        do {
+            current = filled.get();
+            if (capacity - current < amount) {
+                return false;
+            }
+        } while (!filled.compareAndSet(current, current + amount));
+        if (energyOffer.acceptOffer()) {
+            stored.addAndGet(amount);
+            return true;
+        }
+        filled.addAndGet(-amount);
+        return false;
+    }
+
+    /**
+     * Get raw amount of stored energy
+     *
+     * @return raw stored energy
+     */
+    public long getStoredRaw() {
+        return stored.get();
+    }
+
+    /**
+     * Get stored energy
+     *
+     * @return stored energy
+     */
+    @NotNull
+    public Energy getStored() {
+        return Energy.ofRaw(stored.get());
+    }
+
+    /**
+     * Set stored energy, amount is capped by capacity.<br/>
+     * Should be used on loading only, as it ignores input and output limits.
+     *
+     * @param energy stored energy
+     */
+    public void setStored(@NotNull Energy energy) {
+        set(Math.min(energy.getRaw(), capacity));
+    }
+
+    /**
+     * Get storage capacity
+     *
+     * @return capacity
+     */
+    @NotNull
+    public Energy getCapacity() {
+        return Energy.ofRaw(capacity);
+    }
+
+    /**
+     * Get max amount of one insert
+     *
+     * @return max input
+     */
+    @NotNull
+    public Energy getMaxInput() {
+        return Energy.ofRaw(maxInput);
+    }
+
+    /**
+     * Get max amount of one extract
+     *
+     * @return max output
+     */
+    @NotNull
+    public Energy getMaxOutput() {
+        return Energy.ofRaw(maxOutput);
+    }
+
+    /**
+     * Get free space of storage, space reserved by offers in acceptance is not free
+     *
+     * @return free space
+     */
+    @NotNull
+    public Energy getFreeSpace() {
+        return Energy.ofRaw(capacity - filled.get());
+    }
+
+    /**
+     * Check that storage is full
+     *
+     * @return true - storage is full, false - otherwise
+     */
+    public boolean isFull() {
+        return stored.get() >= capacity;
+    }
+
+    /**
+     * Check that storage has no energy
+     *
+     * @return true - storage is empty, false - otherwise
+     */
+    public boolean isEmpty() {
+        return stored.get() == 0;
+    }
+
+    /**
+     * Write stored energy to NBT
+     *
+     * @param nbt block entity NBT
+     */
+    public void writeNbt(@NotNull NbtCompound nbt) {
+        nbt.putLong(ENERGY, stored.get());
+    }
+
+    /**
+     * Read stored energy from NBT
+     *
+     * @param nbt block entity NBT
+     */
+    public void readNbt(@NotNull NbtCompound nbt) {
+        if (nbt.contains(ENERGY, NbtElement.LONG_TYPE)) {
+            set(Math.max(0, Math.min(nbt.getLong(ENERGY), capacity)));
+        } else {
+            set(0);
+        }
+    }
+
+    private void set(long energy) {
+        stored.set(energy);
+        filled.set(energy);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.sib_energy_craft.energy_api.supplier;
+
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/**
+ * Cache of energy supplier output.<br/>
+ * Cache keeps offer of previous tick and supplying directions as bitmask,
+ * so unchanged supplier doesn't create new offer and doesn't build directions set on every tick.<br/>
+ * Supplier should call {@link #markDirty()} when its output changed, e.g. stored energy or generation changed,
+ * and {@link #invalidateDirections()} when supplying directions changed.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+public final class EnergyOfferCache {
+    private EnergyOffer offer;
+    private boolean dirty = true;
+    private int directions;
+    private boolean directionsResolved;
+
+    /**
+     * Get offer of current tick.<br/>
+     * If supplier output is not changed, then offer of previous tick is renewed and returned.
+     *
+     * @param supplier energy supplier
+     * @return energy offer
+     */
+    @NotNull
+    public EnergyOffer getOffer(@NotNull EnergySupplier supplier) {
+        var cached = offer;
+        if (dirty || cached == null) {
+            cached = supplier.createOffer();
+            offer = cached;
+            dirty = false;
+        } else {
+            cached.renew();
+        }
+        return cached;
+    }
+
+    /**
+     * Get bitmask of supplying directions, bit index is {@link Direction#getId()}
+     *
+     * @param supplier energy supplier
+     * @return directions bitmask
+     */
+    public int getDirections(@NotNull EnergySupplier supplier) {
+        if (!directionsResolved) {
+            directions = toMask(supplier.getSupplyingDirections());
+            directionsResolved = true;
+        }
+        return directions;
+    }
+
+    /**
+     * Mark supplier output as changed, new offer will be created on next tick
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Invalidate supplying directions, directions will be resolved on next tick
+     */
+    public void invalidateDirections() {
+        directionsResolved = false;
+    }
+
+    /**
+     * Convert set of directions to bitmask
+     *
+     * @param directions directions
+     * @return directions bitmask
+     */
+    public static int toMask(@NotNull Set<Direction> directions) {
+        int mask = 0;
+        for (var direction : directions) {
+            mask |= 1 << direction.getId();
+        }
+        return mask;
+    }
+}
@@ -2,9 +2,12 @@ package com.github.sib_energy_craft.energy_api.supplier;
 
 import com.github.sib_energy_craft.energy_api.Energy;
 import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumerNeighbours;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.util.math.Direction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
@@ -17,7 +20,8 @@ import java.util.Set;
 public interface EnergySupplier {
 
     /**
-     * Proceed energy supplier logic on server tick
+     * Proceed energy supplier logic on server tick.<br/>
+     * While {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks} engine is enabled supplier is served by its network.
      *
      * @param blockEntity energy supplier block
      */
@@ -25,6 +29,18 @@ public interface EnergySupplier {
         EnergySupplierTicker.tick(this, blockEntity);
     }
 
+    /**
+     * Proceed default energy supplier logic without world, neighbours are taken from chunk index of passed manager.<br/>
+     * Used by headless simulations, supplier is ticked regardless of {@link com.github.sib_energy_craft.energy_api.network.EnergyNetworks} engine state.
+     *
+     * @param manager energy blocks manager
+     * @param pos packed supplier position
+     * @since 0.0.5
+     */
+    default void tick(@NotNull EnergyNetworkManager manager, long pos) {
+        EnergySupplierTicker.tick(this, manager, pos);
+    }
+
     /**
      * Get energy supplying directions of block
      *
@@ -41,6 +57,19 @@ public interface EnergySupplier {
     @NotNull
     EnergyOffer createOffer();
 
+    /**
+     * Get energy offer of current tick.<br/>
+     * If supplier provides {@link #getOfferCache()}, then offer of previous tick is reused while output is not changed.
+     *
+     * @return energy offer
+     * @since 0.0.5
+     */
+    @NotNull
+    default EnergyOffer getTickOffer() {
+        var offerCache = getOfferCache();
+        return offerCache == null ? createOffer() : offerCache.getOffer(this);
+    }
+
     /**
      * Supply passed energy amount
      *
@@ -49,4 +78,31 @@ public interface EnergySupplier {
      */
     boolean supplyEnergy(@NotNull Energy energyAmount);
 
+    /**
+     * Get cache of neighbour energy consumers.<br/>
+     * Block entity can keep own instance of {@link EnergyConsumerNeighbours} to avoid world lookups on every tick.
+     * By default cache is not used.
+     *
+     * @return neighbours cache or null
+     * @since 0.0.5
+     */
+    @Nullable
+    default EnergyConsumerNeighbours getConsumerNeighbours() {
+        return null;
+    }
+
+    /**
+     * Get cache of supplier output.<br/>
+     * Block entity can keep own instance of {@link EnergyOfferCache} to reuse offer and supplying directions between ticks,
+     * in that case block should mark cache dirty when its output changed.
+     * By default cache is not used.
+     *
+     * @return offer cache or null
+     * @since 0.0.5
+     */
+    @Nullable
+    default EnergyOfferCache getOfferCache() {
+        return null;
+    }
+
 }
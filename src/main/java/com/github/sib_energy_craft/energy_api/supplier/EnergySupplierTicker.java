@@ -1,10 +1,17 @@
 package com.github.sib_energy_craft.energy_api.supplier;
 
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.cable.EnergyCable;
 import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworkManager;
+import com.github.sib_energy_craft.energy_api.network.EnergyNetworks;
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -15,9 +22,15 @@ import org.jetbrains.annotations.NotNull;
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 final class EnergySupplierTicker {
+    private static final Direction[] DIRECTIONS = Direction.values();
 
     /**
-     * Default implementation of energy supplying
+     * Default implementation of energy supplying.<br/>
+     * If energy network engine is enabled, then supplier is served by its network and method does nothing.<br/>
+     * If supplier provides {@link EnergySupplier#getConsumerNeighbours()}, then neighbours are taken from cache.<br/>
+     * Supplier creates at most one offer per tick, the same offer is passed to all consumers, and only if any consumer exists.
+     * If supplier provides {@link EnergySupplier#getOfferCache()}, then offer and supplying directions are reused between ticks.<br/>
+     * Supplied offers and tick time are recorded into {@link EnergyStatistics} of dimension.
      *
      * @param supplier energy supplier
      * @param blockEntity energy supplier block
@@ -25,23 +38,66 @@ final class EnergySupplierTicker {
     public static void tick(@NotNull EnergySupplier supplier,
                             @NotNull BlockEntity blockEntity) {
         var world = blockEntity.getWorld();
-        if(!(world instanceof ServerWorld)) {
+        if(!(world instanceof ServerWorld serverWorld) || EnergyNetworks.isEnabled()) {
             return;
         }
-        var pos = blockEntity.getPos();
-        var directions = supplier.getSupplyingDirections();
-        for (var direction : directions) {
-            var neighborPos = pos.offset(direction);
-            var neighbor = world.getBlockEntity(neighborPos);
-            if (!(neighbor instanceof EnergyConsumer consumer)) {
+        tick(supplier, EnergyNetworks.get(serverWorld), blockEntity.getPos().asLong());
+    }
+
+    /**
+     * Supply energy to neighbours, which are taken from chunk index of passed manager.<br/>
+     * Method doesn't check engine state, so it is used by headless simulations too.
+     *
+     * @param supplier energy supplier
+     * @param manager energy blocks manager of supplier world
+     * @param pos packed supplier position
+     */
+    static void tick(@NotNull EnergySupplier supplier,
+                     @NotNull EnergyNetworkManager manager,
+                     long pos) {
+        var statistics = EnergyStatistics.isEnabled() ? manager.getStatistics() : null;
+        var startedAt = statistics == null ? 0 : System.nanoTime();
+        var offerCache = supplier.getOfferCache();
+        var directions = offerCache == null ?
+                EnergyOfferCache.toMask(supplier.getSupplyingDirections()) :
+                offerCache.getDirections(supplier);
+        var neighbours = supplier.getConsumerNeighbours();
+        int offers = 0;
+        long delivered = 0;
+        if (neighbours != null) {
+            neighbours.resolve(manager, pos);
+        }
+        EnergyOffer energyOffer = null;
+        for (var direction : DIRECTIONS) {
+            if ((directions & (1 << direction.getId())) == 0) {
                 continue;
             }
-            var opposite = direction.getOpposite();
-            if (!consumer.isConsumeFrom(opposite)) {
+            EnergyConsumer consumer;
+            if (neighbours != null) {
+                consumer = neighbours.get(direction);
+            } else {
+                var neighbor = manager.getEnergyBlock(BlockPos.offset(pos, direction));
+                var opposite = direction.getOpposite();
+                consumer = neighbor instanceof EnergyConsumer energyConsumer &&
+                        energyConsumer.isConsumeFrom(opposite) ? energyConsumer : null;
+            }
+            if (consumer == null) {
                 continue;
             }
-            var energyOffer = supplier.createOffer();
+            if (energyOffer == null) {
+                energyOffer = supplier.getTickOffer();
+            }
             consumer.receiveOffer(energyOffer);
+            offers++;
+            if (!(consumer instanceof EnergyCable)) {
+                delivered += energyOffer.getEnergyAmount().getRaw();
+            }
+        }
+        if (statistics != null) {
+            statistics.addOffersCreated(energyOffer == null ? 0 : 1);
+            statistics.addOffersForwarded(offers);
+            statistics.addEnergyDelivered(delivered);
+            statistics.addTickNanos(System.nanoTime() - startedAt);
         }
     }
 
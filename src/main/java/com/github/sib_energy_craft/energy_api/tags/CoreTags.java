@@ -1,16 +1,20 @@
 package com.github.sib_energy_craft.energy_api.tags;
 
 import com.github.sib_energy_craft.energy_api.utils.Identifiers;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.tag.TagKey;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Mod core tags
+ * Mod core tags.<br/>
+ * Tags membership is precomputed into arrays indexed by raw item and block state id on every tags reload,
+ * so checks do not scan tags of item or block.
  *
  * @since 0.0.1
  * @author sibmaks
@@ -18,6 +22,14 @@ import org.jetbrains.annotations.NotNull;
 public class CoreTags {
     private static final TagKey<Item> CHARGEABLE;
     private static final TagKey<Block> ENERGY_CONDUCTOR;
+    /**
+     * Chargeable flags by raw item id, null until tags loaded
+     */
+    private static volatile boolean[] chargeableItems;
+    /**
+     * Energy conductor flags by raw block state id, null until tags loaded
+     */
+    private static volatile boolean[] energyConductorStates;
 
     static {
         CHARGEABLE =  TagKey.of(RegistryKeys.ITEM, Identifiers.of("chargeable"));
@@ -32,7 +44,12 @@ public class CoreTags {
      * @return true - item is chargeable, false - otherwise
      */
     public static boolean isChargeable(@NotNull ItemStack itemStack) {
-        return itemStack.streamTags().anyMatch(it -> it.equals(CoreTags.CHARGEABLE));
+        var items = chargeableItems;
+        var rawId = Item.getRawId(itemStack.getItem());
+        if (items == null || rawId >= items.length) {
+            return itemStack.isIn(CHARGEABLE);
+        }
+        return items[rawId];
     }
 
     /**
@@ -43,6 +60,40 @@ public class CoreTags {
      * @return true - block is energy conductor, false - otherwise
      */
     public static boolean isEnergyConductor(@NotNull BlockState blockState) {
-        return blockState.streamTags().anyMatch(it -> it.equals(CoreTags.ENERGY_CONDUCTOR));
+        var states = energyConductorStates;
+        var rawId = Block.getRawIdFromState(blockState);
+        if (states == null || rawId >= states.length) {
+            return blockState.isIn(ENERGY_CONDUCTOR);
+        }
+        return states[rawId];
+    }
+
+    /**
+     * Register tags membership rebuild on tags reload.<br/>
+     * Called once on mod initialization.
+     */
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> rebuild());
+    }
+
+    private static void rebuild() {
+        var items = new boolean[Registries.ITEM.size()];
+        for (var entry : Registries.ITEM.iterateEntries(CHARGEABLE)) {
+            var rawId = Item.getRawId(entry.value());
+            if (rawId >= 0 && rawId < items.length) {
+                items[rawId] = true;
+            }
+        }
+        var states = new boolean[Block.STATE_IDS.size()];
+        for (var entry : Registries.BLOCK.iterateEntries(ENERGY_CONDUCTOR)) {
+            for (var state : entry.value().getStateManager().getStates()) {
+                var rawId = Block.getRawIdFromState(state);
+                if (rawId >= 0 && rawId < states.length) {
+                    states[rawId] = true;
+                }
+            }
+        }
+        chargeableItems = items;
+        energyConductorStates = states;
     }
 }
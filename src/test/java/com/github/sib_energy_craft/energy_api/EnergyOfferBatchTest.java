@@ -0,0 +1,129 @@
+package com.github.sib_energy_craft.energy_api;
+
+import com.github.sib_energy_craft.energy_api.statistics.EnergyStatistics;
+import com.github.sib_energy_craft.energy_api.storage.EnergyStorage;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Settlement of offer batches and counting of delivered and lost energy of accepted offers
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyOfferBatchTest {
+
+    @Test
+    void offerToSeveralConsumersCountedOnce() {
+        var source = new Source(32);
+        var offer = source.createOffer(32);
+        var statistics = new EnergyStatistics(null, EnergyStatistics.NETWORK_WINDOW);
+        var batches = new EnergyOfferBatch[4];
+        for (int i = 0; i < batches.length; i++) {
+            batches[i] = new EnergyOfferBatch();
+            batches[i].clear(statistics);
+            batches[i].add(offer, Energy.toRaw(30));
+        }
+        int accepted = 0;
+        for (var batch : batches) {
+            batch.accept(0);
+            if (batch.settle() != 0) {
+                accepted++;
+            }
+        }
+        statistics.completeTick();
+
+        assertEquals(1, accepted);
+        assertEquals(0, new BigDecimal(30).compareTo(statistics.getEnergyDelivered()));
+        assertEquals(0, new BigDecimal(2).compareTo(statistics.getEnergyLost()));
+    }
+
+    @Test
+    void offerAcceptedByForkCounted() {
+        var source = new Source(64);
+        var offer = source.createOffer(32);
+        var statistics = new EnergyStatistics(null, EnergyStatistics.NETWORK_WINDOW);
+        var first = new EnergyOfferBatch();
+        first.clear(statistics);
+        first.add(offer, Energy.toRaw(31));
+        var second = new EnergyOfferBatch();
+        second.clear(statistics);
+        second.add(offer, Energy.toRaw(32));
+
+        assertTrue(first.getOffer(0).acceptOffer());
+        statistics.completeTick();
+
+        assertEquals(0, new BigDecimal(31).compareTo(statistics.getEnergyDelivered()));
+        assertEquals(0, BigDecimal.ONE.compareTo(statistics.getEnergyLost()));
+        assertNotSame(offer, second.getOffer(0));
+    }
+
+    @Test
+    void declinedOffersNotCounted() {
+        var source = new Source(0);
+        var statistics = new EnergyStatistics(null, EnergyStatistics.NETWORK_WINDOW);
+        var batch = new EnergyOfferBatch();
+        batch.clear(statistics);
+        batch.add(source.createOffer(32), Energy.toRaw(30));
+        batch.add(source.createOffer(32), Energy.toRaw(31));
+        batch.accept(0);
+
+        assertEquals(0, batch.settle());
+        assertFalse(batch.getOffer(1).acceptOffer());
+        statistics.completeTick();
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(statistics.getEnergyDelivered()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(statistics.getEnergyLost()));
+    }
+
+    @Test
+    void batchWithoutStatisticsReusesOffer() {
+        var source = new Source(32);
+        var offer = source.createOffer(32);
+        var batch = new EnergyOfferBatch();
+        batch.add(offer, Energy.toRaw(32));
+
+        assertSame(offer, batch.getOffer(0));
+    }
+
+    /**
+     * Supplier, that supplies energy of own storage
+     */
+    private static final class Source implements EnergySupplier {
+        private final EnergyStorage storage = new EnergyStorage(Energy.of(1000), EnergyLevel.L1);
+
+        private Source(int energy) {
+            storage.setStored(Energy.of(energy));
+        }
+
+        @NotNull
+        private EnergyOffer createOffer(int energy) {
+            return new EnergyOffer(this, Energy.of(energy));
+        }
+
+        @NotNull
+        @Override
+        public Set<Direction> getSupplyingDirections() {
+            return EnumSet.allOf(Direction.class);
+        }
+
+        @NotNull
+        @Override
+        public EnergyOffer createOffer() {
+            return createOffer(EnergyLevel.L1.to);
+        }
+
+        @Override
+        public boolean supplyEnergy(@NotNull Energy energy) {
+            return storage.extractExact(energy, false);
+        }
+    }
+}
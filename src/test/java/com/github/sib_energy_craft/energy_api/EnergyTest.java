@@ -0,0 +1,92 @@
+package com.github.sib_energy_craft.energy_api;
+
+import com.github.sib_energy_craft.energy_api.constants.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fixed-point energy arithmetic: saturation, rounding and equality
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyTest {
+    private static final Energy MAX = Energy.ofRaw(Long.MAX_VALUE);
+
+    @Test
+    void addSaturatesOnOverflow() {
+        assertEquals(MAX, MAX.add(1));
+        assertEquals(MAX, MAX.add(MAX));
+        assertEquals(Long.MAX_VALUE, Energy.addRaw(Long.MAX_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Energy.addRaw(Long.MAX_VALUE - 1, 2));
+    }
+
+    @Test
+    void subtractSaturatesAtZero() {
+        assertEquals(Energy.ZERO, Energy.of(1).subtract(2));
+        assertEquals(Energy.ZERO, Energy.of(1).subtract(MAX));
+        assertEquals(0, Energy.subtractRaw(0, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Energy.subtractRaw(Long.MAX_VALUE, -1));
+    }
+
+    @Test
+    void amountIsNeverNegative() {
+        assertEquals(Energy.ZERO, Energy.of(-5));
+        assertEquals(Energy.ZERO, Energy.of(new BigDecimal("-0.5")));
+        assertEquals(Energy.ZERO, Energy.ofRaw(-1));
+        assertEquals(0, Energy.addRaw(5, -10));
+    }
+
+    @Test
+    void hugeAmountsSaturate() {
+        assertEquals(Long.MAX_VALUE, Energy.toRaw(Integer.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Energy.toRaw(new BigDecimal("1e30")));
+        assertEquals(MAX, Energy.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void subtractBigDecimalWithLargeScaleIsRounded() {
+        var one = Energy.of(1);
+
+        assertEquals(Energy.ofRaw(Constants.ENERGY_SCALE - 1), one.subtract(new BigDecimal("0.00000000006")));
+        assertEquals(Energy.ofRaw(Constants.ENERGY_SCALE - 1), one.subtract(new BigDecimal("0.00000000005")));
+        assertEquals(one, one.subtract(new BigDecimal("0.00000000004")));
+        assertEquals(Energy.ofRaw(Constants.ENERGY_SCALE + 1), one.subtract(new BigDecimal("-0.00000000006")));
+        assertEquals(Energy.ZERO, one.subtract(new BigDecimal("1.00000000001")));
+    }
+
+    @Test
+    void subtractBigDecimal() {
+        var five = Energy.of(5);
+
+        assertEquals(Energy.of(new BigDecimal("3.5")), five.subtract(new BigDecimal("1.5")));
+        assertEquals(Energy.of(new BigDecimal("6.5")), five.subtract(new BigDecimal("-1.5")));
+        assertEquals(Energy.ZERO, five.subtract(new BigDecimal("7")));
+    }
+
+    @Test
+    void equalsAndHashCodeUseAmount() {
+        var cached = Energy.of(5);
+        var decimal = Energy.of(new BigDecimal("5.000"));
+        var uncached = Energy.of(100_000);
+        var raw = Energy.ofRaw(Energy.toRaw(100_000));
+
+        assertEquals(cached, decimal);
+        assertEquals(cached.hashCode(), decimal.hashCode());
+        assertEquals(uncached, raw);
+        assertEquals(uncached.hashCode(), raw.hashCode());
+        assertNotEquals(Energy.of(5), Energy.of(6));
+        assertNotEquals(Energy.of(5), Energy.of(new BigDecimal("5.0000000001")));
+        assertEquals(0, uncached.compareTo(raw));
+    }
+
+    @Test
+    void integerAmountsAreCached() {
+        assertSame(Energy.of(32), Energy.of(32));
+        assertSame(Energy.of(32), Energy.ofRaw(Energy.toRaw(32)));
+        assertSame(Energy.ZERO, Energy.of(0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.sib_energy_craft.energy_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Headless simulation runs of energy networks engine and default tickers
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergySimulationTest {
+    private static final BigDecimal RESISTANCE = new BigDecimal("0.05");
+    private static final int SIZE = 400;
+    private static final int TICKS = 100;
+    private static final long SEED = 42;
+    private static final int SUPPLIER_ENERGY = 32;
+    private static final int CONSUMER_USAGE = 5;
+
+    @ParameterizedTest
+    @EnumSource(EnergyTopology.class)
+    void networksConserveEnergy(EnergyTopology topology) {
+        var report = run(topology, EnergySimulationMode.NETWORKS);
+
+        assertConserved(report);
+    }
+
+    @ParameterizedTest
+    @EnumSource(EnergyTopology.class)
+    void tickersConserveEnergy(EnergyTopology topology) {
+        var report = run(topology, EnergySimulationMode.TICKERS);
+
+        assertConserved(report);
+    }
+
+    @ParameterizedTest
+    @EnumSource(EnergySimulationMode.class)
+    void seededRunsAreIdentical(EnergySimulationMode mode) {
+        var first = run(EnergyTopology.RANDOM, mode);
+        var second = run(EnergyTopology.RANDOM, mode);
+
+        assertEquals(first.getChecksum(), second.getChecksum());
+        assertEquals(first.getSupplied(), second.getSupplied());
+        assertEquals(first.getUsed(), second.getUsed());
+        assertEquals(first.getBuffered(), second.getBuffered());
+        assertEquals(first.getLost(), second.getLost());
+        assertEquals(first.getNetworks(), second.getNetworks());
+        assertEquals(first.getNodes(), second.getNodes());
+    }
+
+    @Test
+    void tickersDeliverEnergyThroughLine() {
+        var report = new EnergySimulation(EnergyTopology.LINE, 40, SEED, RESISTANCE, SUPPLIER_ENERGY,
+                EnergySimulationMode.TICKERS, 0).run(TICKS);
+
+        // every offer passes 40 cables with resistance 0.05, so consumer receives 30 of 32 supplied energy
+        assertTrue(report.getReceived().signum() > 0);
+        assertEquals(0, report.getReceived().compareTo(report.getLost().multiply(BigDecimal.valueOf(15))));
+        assertTrue(report.isConserved());
+    }
+
+    @Test
+    void networksAndTickersDeliverSameEnergyThroughLine() {
+        var networks = new EnergySimulation(EnergyTopology.LINE, 40, SEED, RESISTANCE, SUPPLIER_ENERGY,
+                EnergySimulationMode.NETWORKS, 0).run(TICKS);
+        var tickers = new EnergySimulation(EnergyTopology.LINE, 40, SEED, RESISTANCE, SUPPLIER_ENERGY,
+                EnergySimulationMode.TICKERS, 0).run(TICKS);
+
+        // line cables are ticked from supplier to consumer, so tickers pass offer through whole line in one tick
+        assertEquals(networks.getSupplied(), tickers.getSupplied());
+        assertEquals(networks.getReceived(), tickers.getReceived());
+        assertEquals(networks.getLost(), tickers.getLost());
+        assertEquals(networks.getChecksum(), tickers.getChecksum());
+    }
+
+    private static EnergySimulationReport run(EnergyTopology topology, EnergySimulationMode mode) {
+        return new EnergySimulation(topology, SIZE, SEED, RESISTANCE, SUPPLIER_ENERGY, mode, CONSUMER_USAGE)
+                .run(TICKS);
+    }
+
+    private static void assertConserved(EnergySimulationReport report) {
+        assertEquals(0, report.getBurned());
+        assertTrue(report.getSupplied().signum() > 0);
+        assertTrue(report.getBuffered().signum() > 0);
+        assertEquals(0, report.getSupplied().compareTo(report.getUsed().add(report.getBuffered()).add(report.getLost())));
+        assertTrue(report.isConserved());
+    }
+}
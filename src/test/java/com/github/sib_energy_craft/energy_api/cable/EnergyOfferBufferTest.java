@@ -0,0 +1,107 @@
+package com.github.sib_energy_craft.energy_api.cable;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.benchmark.BenchmarkSupplier;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reduction and double buffering of cable offers
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyOfferBufferTest {
+    private final EnergyOfferBuffer buffer = new EnergyOfferBuffer();
+
+    @Test
+    void incomingOffersAreNotCurrentUntilFlip() {
+        buffer.offer(new EnergyOffer(new BenchmarkSupplier(8), Energy.of(8)));
+
+        assertEquals(0, buffer.size());
+        buffer.flip();
+        assertEquals(1, buffer.size());
+        assertEquals(Energy.toRaw(8), buffer.getEnergyAmount(0));
+    }
+
+    @Test
+    void mostValuableOfferOfSupplierIsKept() {
+        var supplier = new BenchmarkSupplier(32);
+        var low = new EnergyOffer(supplier, Energy.of(10));
+        var high = new EnergyOffer(supplier, Energy.of(30));
+
+        buffer.offer(low);
+        buffer.offer(high);
+        buffer.offer(low);
+        buffer.flip();
+
+        assertEquals(1, buffer.size());
+        assertSame(high, buffer.getOffer(0));
+        assertEquals(Energy.toRaw(30), buffer.getEnergyAmount(0));
+    }
+
+    @Test
+    void offerWithAmountOverridesOfferAmount() {
+        var offer = new EnergyOffer(new BenchmarkSupplier(32), Energy.of(32));
+
+        buffer.offer(offer, Energy.toRaw(5));
+        buffer.flip();
+
+        assertEquals(1, buffer.size());
+        assertSame(offer, buffer.getOffer(0));
+        assertEquals(Energy.toRaw(5), buffer.getEnergyAmount(0));
+    }
+
+    @Test
+    void notPositiveAmountIsIgnored() {
+        var offer = new EnergyOffer(new BenchmarkSupplier(32), Energy.of(32));
+
+        buffer.offer(offer, 0);
+        buffer.offer(offer, -1);
+        buffer.flip();
+
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offersOfManySuppliersAreKept() {
+        int count = 1000;
+        var suppliers = new BenchmarkSupplier[count];
+        for (int i = 0; i < count; i++) {
+            suppliers[i] = new BenchmarkSupplier(i + 1);
+            buffer.offer(new EnergyOffer(suppliers[i], Energy.of(i + 1)));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.offer(new EnergyOffer(suppliers[i], Energy.of(i + 2)));
+        }
+        buffer.flip();
+
+        assertEquals(count, buffer.size());
+        var sources = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            var offer = buffer.getOffer(i);
+            sources.add(offer.getSource());
+            assertEquals(offer.getEnergyAmount().getRaw(), buffer.getEnergyAmount(i));
+        }
+        assertEquals(count, sources.size());
+        assertEquals(Energy.toRaw(2), buffer.getEnergyAmount(0));
+    }
+
+    @Test
+    void flipClearsIncomingOffers() {
+        var supplier = new BenchmarkSupplier(32);
+        buffer.offer(new EnergyOffer(supplier, Energy.of(30)));
+        buffer.flip();
+        buffer.offer(new EnergyOffer(supplier, Energy.of(10)));
+        buffer.flip();
+
+        assertEquals(1, buffer.size());
+        assertEquals(Energy.toRaw(10), buffer.getEnergyAmount(0));
+        buffer.flip();
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pending charge of stacks is not lost when stack is copied or saved.<br/>
+ * Copy and save hooks are called the same way as stack mixin does.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class DeferredChargesTest {
+    private static final int MAX_CHARGE = 64000;
+    private static final int WRITTEN = 1000;
+    private static final int PENDING = 1001;
+
+    @BeforeAll
+    static void bootstrap() {
+        TestItems.bootstrap();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DeferredCharges.setOwner(Thread.currentThread());
+    }
+
+    @AfterEach
+    void tearDown() {
+        DeferredCharges.flush();
+        DeferredCharges.setOwner(null);
+    }
+
+    @Test
+    void smallChangeIsDeferred() {
+        var stack = chargedStack();
+
+        assertEquals(WRITTEN, DeferredCharges.readCharge(stack));
+        assertEquals(PENDING, DeferredCharges.get(stack));
+    }
+
+    @Test
+    void copyKeepsPendingCharge() {
+        var stack = chargedStack();
+
+        var copy = stack.copy();
+        ChargeSync.onCopy(stack, copy);
+
+        assertEquals(PENDING, DeferredCharges.get(copy));
+        assertEquals(PENDING, DeferredCharges.get(stack));
+        DeferredCharges.flush();
+        assertEquals(PENDING, DeferredCharges.readCharge(copy));
+        assertEquals(PENDING, DeferredCharges.readCharge(stack));
+    }
+
+    @Test
+    void copyOfEmptyStackIsIgnored() {
+        var stack = chargedStack();
+
+        ChargeSync.onCopy(stack, ItemStack.EMPTY);
+
+        assertEquals(-1, DeferredCharges.get(ItemStack.EMPTY));
+    }
+
+    @Test
+    void saveWritesPendingCharge() {
+        var stack = chargedStack();
+
+        ChargeSync.onSave(stack);
+        var loaded = ItemStack.fromNbt(stack.writeNbt(new NbtCompound()));
+
+        assertEquals(-1, DeferredCharges.get(stack));
+        assertEquals(PENDING, DeferredCharges.readCharge(stack));
+        assertEquals(PENDING, DeferredCharges.readCharge(loaded));
+    }
+
+    @Test
+    void savedCopyKeepsPendingCharge() {
+        var stack = chargedStack();
+
+        var copy = stack.copy();
+        ChargeSync.onCopy(stack, copy);
+        stack.setCount(0);
+        ChargeSync.onSave(copy);
+        var loaded = ItemStack.fromNbt(copy.writeNbt(new NbtCompound()));
+
+        assertEquals(PENDING, DeferredCharges.readCharge(loaded));
+    }
+
+    @Test
+    void otherThreadDoesNotDefer() {
+        DeferredCharges.setOwner(null);
+        var stack = new ItemStack(Items.STONE);
+
+        assertFalse(DeferredCharges.defer(stack, MAX_CHARGE, PENDING));
+        assertEquals(-1, DeferredCharges.get(stack));
+    }
+
+    private static ItemStack chargedStack() {
+        var stack = new ItemStack(Items.STONE);
+        DeferredCharges.writeCharge(stack, WRITTEN);
+        assertTrue(DeferredCharges.defer(stack, MAX_CHARGE, PENDING));
+        return stack;
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk charge and discharge of inventory stacks by charge policies
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class InventoryChargerTest {
+    private int dirty;
+
+    @BeforeAll
+    static void bootstrap() {
+        TestItems.bootstrap();
+    }
+
+    @Test
+    void fillFirstChargesInSlotsOrder() {
+        var inventory = inventory(0, 0, 0);
+
+        var rest = new InventoryCharger(ChargePolicy.FILL_FIRST).charge(inventory, Energy.of(150));
+
+        assertEquals(Energy.ZERO, rest);
+        assertCharges(inventory, 100, 50, 0);
+        assertEquals(1, dirty);
+    }
+
+    @Test
+    void notUsedEnergyIsReturned() {
+        var inventory = inventory(0, 90);
+
+        var rest = new InventoryCharger(ChargePolicy.FILL_FIRST).charge(inventory, Energy.of(150));
+
+        assertEquals(Energy.of(40), rest);
+        assertCharges(inventory, 100, 100);
+    }
+
+    @Test
+    void fractionalEnergyIsReturned() {
+        var inventory = inventory(0);
+
+        var rest = new InventoryCharger(ChargePolicy.FILL_FIRST).charge(inventory, Energy.of(new BigDecimal("10.5")));
+
+        assertEquals(Energy.of(new BigDecimal("0.5")), rest);
+        assertCharges(inventory, 10);
+    }
+
+    @Test
+    void lessThanUnitIsNotTransferred() {
+        var inventory = inventory(0);
+        var energy = Energy.of(new BigDecimal("0.9"));
+
+        var rest = new InventoryCharger(ChargePolicy.ROUND_ROBIN).charge(inventory, energy);
+
+        assertEquals(energy, rest);
+        assertCharges(inventory, 0);
+        assertEquals(0, dirty);
+    }
+
+    @Test
+    void roundRobinGivesRestInTurn() {
+        var inventory = inventory(0, 0, 0);
+        var charger = new InventoryCharger(ChargePolicy.ROUND_ROBIN);
+
+        charger.charge(inventory, Energy.of(10));
+        assertCharges(inventory, 4, 3, 3);
+
+        charger.charge(inventory, Energy.of(2));
+        assertCharges(inventory, 4, 4, 4);
+    }
+
+    @Test
+    void roundRobinRedistributesShareOfFullStacks() {
+        var inventory = inventory(98, 0, 0);
+
+        var rest = new InventoryCharger(ChargePolicy.ROUND_ROBIN).charge(inventory, Energy.of(30));
+
+        assertEquals(Energy.ZERO, rest);
+        assertCharges(inventory, 100, 14, 14);
+    }
+
+    @Test
+    void proportionalFollowsFreeSpace() {
+        var inventory = inventory(0, 50, 90);
+
+        var rest = new InventoryCharger(ChargePolicy.PROPORTIONAL).charge(inventory, Energy.of(80));
+
+        assertEquals(Energy.ZERO, rest);
+        assertCharges(inventory, 50, 75, 95);
+    }
+
+    @Test
+    void proportionalGivesIndivisibleRestInSlotsOrder() {
+        var inventory = inventory(0, 0, 0);
+
+        var rest = new InventoryCharger(ChargePolicy.PROPORTIONAL).charge(inventory, Energy.of(10));
+
+        assertEquals(Energy.ZERO, rest);
+        assertCharges(inventory, 4, 3, 3);
+    }
+
+    @Test
+    void proportionalFillsAllStacksWhenEnergyIsEnough() {
+        var inventory = inventory(0, 50);
+
+        var rest = new InventoryCharger(ChargePolicy.PROPORTIONAL).charge(inventory, Energy.of(500));
+
+        assertEquals(Energy.of(350), rest);
+        assertCharges(inventory, 100, 100);
+    }
+
+    @Test
+    void dischargeIsLimitedByCharge() {
+        var inventory = inventory(30, 50);
+        var charger = new InventoryCharger(ChargePolicy.FILL_FIRST);
+
+        assertEquals(Energy.of(60), charger.discharge(inventory, Energy.of(60)));
+        assertCharges(inventory, 0, 20);
+
+        assertEquals(Energy.of(20), charger.discharge(inventory, Energy.of(60)));
+        assertCharges(inventory, 0, 0);
+    }
+
+    @Test
+    void proportionalDischargeFollowsCharge() {
+        var inventory = inventory(20, 60);
+
+        var discharged = new InventoryCharger(ChargePolicy.PROPORTIONAL).discharge(inventory, Energy.of(40));
+
+        assertEquals(Energy.of(40), discharged);
+        assertCharges(inventory, 10, 30);
+    }
+
+    @Test
+    void notChargeableStacksAreSkipped() {
+        var battery = battery(0);
+        var inventory = new SimpleInventory(ItemStack.EMPTY, new ItemStack(Items.STONE), battery);
+
+        var rest = new InventoryCharger(ChargePolicy.FILL_FIRST).charge(inventory, Energy.of(10));
+
+        assertEquals(Energy.ZERO, rest);
+        assertEquals(10, TestItems.BATTERY.getCharge(battery));
+    }
+
+    @Test
+    void slotsRangeIsCharged() {
+        var inventory = inventory(0, 0, 0);
+
+        new InventoryCharger(ChargePolicy.FILL_FIRST).charge(inventory, 1, 2, Energy.of(10));
+
+        assertCharges(inventory, 0, 10, 0);
+    }
+
+    private SimpleInventory inventory(int... charges) {
+        var stacks = new ItemStack[charges.length];
+        for (int i = 0; i < charges.length; i++) {
+            stacks[i] = battery(charges[i]);
+        }
+        var inventory = new SimpleInventory(stacks);
+        inventory.addListener(sender -> dirty++);
+        return inventory;
+    }
+
+    private static ItemStack battery(int charge) {
+        var stack = new ItemStack(TestItems.BATTERY);
+        TestItems.BATTERY.setCharge(stack, charge);
+        return stack;
+    }
+
+    private static void assertCharges(SimpleInventory inventory, int... charges) {
+        for (int i = 0; i < charges.length; i++) {
+            assertEquals(charges[i], TestItems.BATTERY.getCharge(inventory.getStack(i)), "slot " + i);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.sib_energy_craft.energy_api.items;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Game registries bootstrap for item tests.<br/>
+ * Items can't be created after registries are frozen, so test items are registered before bootstrap
+ * and tests should bootstrap game by {@link #bootstrap()} only.
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+final class TestItems {
+    /**
+     * Max charge of test battery
+     */
+    static final int MAX_CHARGE = 100;
+    static final Battery BATTERY;
+
+    static {
+        SharedConstants.createGameVersion();
+        BATTERY = Registry.register(Registries.ITEM, new Identifier("sib_energy_craft_test", "battery"), new Battery());
+        Bootstrap.initialize();
+    }
+
+    private TestItems() {
+    }
+
+    /**
+     * Bootstrap game registries with test items
+     */
+    static void bootstrap() {
+        // registries are bootstrapped on class initialization
+    }
+
+    static final class Battery extends Item implements ChargeableItem {
+
+        private Battery() {
+            super(new Item.Settings().maxCount(1));
+        }
+
+        @Override
+        public int getMaxCharge() {
+            return MAX_CHARGE;
+        }
+    }
+}
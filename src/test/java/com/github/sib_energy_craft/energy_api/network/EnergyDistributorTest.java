@@ -0,0 +1,243 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.benchmark.BenchmarkSupplier;
+import com.github.sib_energy_craft.energy_api.consumer.EnergyConsumer;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quotas of consumers and offer claims of energy distributor
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyDistributorTest {
+    private static final int SUPPLIERS = 4;
+    private static final int OFFER = 10;
+
+    private final EnergyDistributor distributor = new EnergyDistributor();
+    private final EnergyOffer[] offers = new EnergyOffer[SUPPLIERS];
+    private final long[] offerAmounts = new long[SUPPLIERS];
+
+    EnergyDistributorTest() {
+        for (int s = 0; s < SUPPLIERS; s++) {
+            offers[s] = new EnergyOffer(new BenchmarkSupplier(OFFER), Energy.of(OFFER));
+            offerAmounts[s] = Energy.toRaw(OFFER);
+        }
+    }
+
+    @Test
+    void priorityServesHigherPriorityFirst() {
+        var consumers = consumers(new Consumer(0, 20), new Consumer(1, 20), new Consumer(2, 20));
+
+        var received = distribute(EnergyDistributionPolicy.PRIORITY, consumers);
+
+        assertArrayEquals(new long[]{0, 20, 20}, received);
+    }
+
+    @Test
+    void prioritySharesTierProportionally() {
+        var consumers = consumers(new Consumer(1, 20), new Consumer(1, 20), new Consumer(2, 20));
+
+        var received = distribute(EnergyDistributionPolicy.PRIORITY, consumers);
+
+        assertEquals(20, received[2]);
+        assertEquals(10, received[0]);
+        assertEquals(10, received[1]);
+    }
+
+    @Test
+    void fairShareIsEqualOverTicks() {
+        var consumers = consumers(new Consumer(0, 20), new Consumer(0, 20), new Consumer(0, 20));
+        var total = new long[consumers.length];
+
+        for (int tick = 0; tick < consumers.length; tick++) {
+            var received = distribute(EnergyDistributionPolicy.FAIR_SHARE, consumers);
+            assertEquals(SUPPLIERS * OFFER, sum(received));
+            for (int c = 0; c < consumers.length; c++) {
+                assertTrue(received[c] >= OFFER);
+                total[c] += received[c];
+            }
+        }
+
+        assertArrayEquals(new long[]{40, 40, 40}, total);
+    }
+
+    @Test
+    void fairShareFollowsDemand() {
+        var consumers = consumers(new Consumer(0, 60), new Consumer(0, 20));
+
+        var received = distribute(EnergyDistributionPolicy.FAIR_SHARE, consumers);
+
+        assertArrayEquals(new long[]{30, 10}, received);
+    }
+
+    @Test
+    void roundRobinRotatesFirstConsumer() {
+        var consumers = consumers(new Consumer(0, 20), new Consumer(0, 20), new Consumer(0, 20));
+
+        assertArrayEquals(new long[]{20, 20, 0}, distribute(EnergyDistributionPolicy.ROUND_ROBIN, consumers));
+        assertArrayEquals(new long[]{0, 20, 20}, distribute(EnergyDistributionPolicy.ROUND_ROBIN, consumers));
+        assertArrayEquals(new long[]{20, 0, 20}, distribute(EnergyDistributionPolicy.ROUND_ROBIN, consumers));
+    }
+
+    @Test
+    void demandLimitsClaimsWhenSupplyIsEnough() {
+        var consumers = consumers(new Consumer(0, 10), new Consumer(0, 10));
+
+        for (var policy : new EnergyDistributionPolicy[]{
+                EnergyDistributionPolicy.PRIORITY,
+                EnergyDistributionPolicy.FAIR_SHARE,
+                EnergyDistributionPolicy.ROUND_ROBIN}) {
+            assertArrayEquals(new long[]{10, 10}, distribute(policy, consumers), policy.name());
+        }
+    }
+
+    @Test
+    void unmanagedConsumerKeepsAllOffers() {
+        var consumers = consumers(new Consumer(0, null), new Consumer(5, 20));
+
+        var received = distribute(EnergyDistributionPolicy.PRIORITY, consumers);
+
+        assertEquals(SUPPLIERS * OFFER, received[0]);
+        assertEquals(20, received[1]);
+    }
+
+    @Test
+    void offerIsKeptForOneManagedConsumer() {
+        var consumers = consumers(new Consumer(0, 100), new Consumer(0, 100), new Consumer(0, 100));
+        addAll(consumers);
+
+        distributor.distribute(EnergyDistributionPolicy.FAIR_SHARE, offerAmounts, SUPPLIERS);
+
+        var keptBySupplier = new int[SUPPLIERS];
+        for (int e = 0; e < distributor.getEntryCount(); e++) {
+            if (distributor.isKept(e)) {
+                keptBySupplier[indexOf(distributor.getOffer(e))]++;
+            }
+        }
+        assertArrayEquals(new int[]{1, 1, 1, 1}, keptBySupplier);
+        distributor.clear();
+    }
+
+    @Test
+    void costReducesReceivedEnergy() {
+        var consumers = consumers(new Consumer(0, 15));
+        for (int s = 0; s < SUPPLIERS; s++) {
+            distributor.add(consumers[0], offers[s], s, offerAmounts[s], Energy.toRaw(5));
+        }
+
+        distributor.distribute(EnergyDistributionPolicy.FAIR_SHARE, offerAmounts, SUPPLIERS);
+
+        int kept = 0;
+        for (int e = 0; e < distributor.getEntryCount(); e++) {
+            kept += distributor.isKept(e) ? 1 : 0;
+        }
+        assertEquals(3, kept);
+        distributor.clear();
+    }
+
+    @Test
+    void clearReleasesConsumers() {
+        var consumers = consumers(new Consumer(0, 20));
+        addAll(consumers);
+
+        distributor.clear();
+
+        assertTrue(distributor.isEmpty());
+        assertEquals(-1, consumers[0].distributionIndex);
+    }
+
+    @NotNull
+    private long[] distribute(@NotNull EnergyDistributionPolicy policy, @NotNull EnergyEndpoint[] consumers) {
+        addAll(consumers);
+        distributor.distribute(policy, offerAmounts, SUPPLIERS);
+        var received = new long[consumers.length];
+        for (int e = 0; e < distributor.getEntryCount(); e++) {
+            if (!distributor.isKept(e)) {
+                continue;
+            }
+            var energy = distributor.getAmount(e) - distributor.getCost(e);
+            received[distributor.getNode(e).id] += Energy.ofRaw(energy).intValue();
+        }
+        distributor.clear();
+        return received;
+    }
+
+    private void addAll(@NotNull EnergyEndpoint[] consumers) {
+        for (int s = 0; s < SUPPLIERS; s++) {
+            for (var consumer : consumers) {
+                distributor.add(consumer, offers[s], s, offerAmounts[s], 0);
+            }
+        }
+    }
+
+    private int indexOf(@NotNull EnergyOffer offer) {
+        for (int s = 0; s < SUPPLIERS; s++) {
+            if (offers[s] == offer) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException("Unknown offer");
+    }
+
+    @NotNull
+    private static EnergyEndpoint[] consumers(@NotNull Consumer... consumers) {
+        var endpoints = new EnergyEndpoint[consumers.length];
+        for (int i = 0; i < consumers.length; i++) {
+            endpoints[i] = Objects.requireNonNull(EnergyEndpoint.of(i, consumers[i]));
+        }
+        return endpoints;
+    }
+
+    private static long sum(@NotNull long[] values) {
+        long sum = 0;
+        for (var value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Consumer with declared demand and priority
+     */
+    private static final class Consumer implements EnergyConsumer {
+        private final int priority;
+        @Nullable
+        private final Energy demand;
+
+        private Consumer(int priority, @Nullable Integer demand) {
+            this.priority = priority;
+            this.demand = demand == null ? null : Energy.of(demand);
+        }
+
+        @Override
+        public boolean isConsumeFrom(@NotNull Direction direction) {
+            return true;
+        }
+
+        @Override
+        public void receiveOffer(@NotNull EnergyOffer energyOffer) {
+            energyOffer.acceptOffer();
+        }
+
+        @Nullable
+        @Override
+        public Energy getEnergyDemand() {
+            return demand;
+        }
+
+        @Override
+        public int getEnergyPriority() {
+            return priority;
+        }
+    }
+}
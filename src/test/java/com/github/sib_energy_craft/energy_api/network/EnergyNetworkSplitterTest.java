@@ -0,0 +1,150 @@
+package com.github.sib_energy_craft.energy_api.network;
+
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.benchmark.BenchmarkCable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Localized split detection after node removal
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyNetworkSplitterTest {
+    private static final BigDecimal RESISTANCE = new BigDecimal("0.05");
+
+    private final EnergyNodeStore store = new EnergyNodeStore();
+    private final EnergyNetworkSplitter splitter = new EnergyNetworkSplitter();
+
+    @Test
+    void lineIsSplitInTwo() {
+        for (int x = 0; x < 10; x++) {
+            cable(x, 0);
+        }
+
+        var components = remove(4, 0);
+
+        assertEquals(1, components.size());
+        var detached = components.get(0);
+        assertTrue(detached.size() == 4 || detached.size() == 5);
+    }
+
+    @Test
+    void ringIsNotSplit() {
+        for (int x = 0; x < 3; x++) {
+            cable(x, 0);
+            cable(x, 2);
+        }
+        cable(0, 1);
+        cable(2, 1);
+
+        var components = remove(1, 0);
+
+        assertTrue(components.isEmpty());
+    }
+
+    @Test
+    void crossIsSplitIntoArms() {
+        cable(0, 0);
+        for (int i = 1; i <= 3; i++) {
+            cable(i, 0);
+            cable(-i, 0);
+            cable(0, i);
+        }
+        cable(0, -1);
+
+        var components = remove(0, 0);
+
+        assertEquals(3, components.size());
+        int nodes = 0;
+        for (var component : components) {
+            nodes += component.size();
+        }
+        // one of arms is kept in original network
+        assertTrue(nodes == 7 || nodes == 9);
+    }
+
+    @Test
+    void componentsDoNotShareNodes() {
+        for (int x = -5; x <= 5; x++) {
+            cable(x, 0);
+        }
+        for (int y = 1; y <= 5; y++) {
+            cable(0, y);
+        }
+
+        var components = remove(0, 0);
+
+        var seen = new IntArrayList();
+        for (var component : components) {
+            for (int i = 0; i < component.size(); i++) {
+                assertFalse(seen.contains(component.getInt(i)));
+                seen.add(component.getInt(i));
+            }
+        }
+        assertEquals(2, components.size());
+    }
+
+    @Test
+    void singleNeighbourIsNotSplit() {
+        cable(0, 0);
+        cable(1, 0);
+        cable(2, 0);
+
+        assertTrue(remove(0, 0).isEmpty());
+    }
+
+    @Test
+    void managerSplitsAndMergesNetworks() {
+        var manager = new EnergyNetworkManager(null);
+        var cables = new BenchmarkCable[10];
+        for (int x = 0; x < cables.length; x++) {
+            cables[x] = new BenchmarkCable(RESISTANCE, EnergyLevel.L1);
+            manager.add(BlockPos.asLong(x, 64, 0), cables[x]);
+        }
+        manager.tick();
+        assertEquals(1, manager.getNetworks().size());
+
+        manager.remove(BlockPos.asLong(3, 64, 0), cables[3]);
+        manager.tick();
+        assertEquals(2, manager.getNetworks().size());
+        assertEquals(9, manager.getNetworks().stream().mapToInt(EnergyNetwork::getSize).sum());
+
+        manager.add(BlockPos.asLong(3, 64, 0), cables[3]);
+        manager.tick();
+        assertEquals(1, manager.getNetworks().size());
+        assertEquals(10, manager.getNetworks().iterator().next().getSize());
+    }
+
+    private void cable(int x, int y) {
+        var pos = BlockPos.asLong(x, y, 0);
+        int id = store.add(pos, new BenchmarkCable(RESISTANCE, EnergyLevel.L1), 1);
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = store.get(BlockPos.offset(pos, EnergyNodeStore.DIRECTIONS[d]));
+            if (neighbour != EnergyNodeStore.NONE && store.isConnected(id, d, neighbour)) {
+                store.link(id, d, neighbour);
+            }
+        }
+    }
+
+    private List<IntArrayList> remove(int x, int y) {
+        int id = store.get(BlockPos.asLong(x, y, 0));
+        var starts = new int[EnergyNodeStore.SIDES];
+        int count = 0;
+        for (int d = 0; d < EnergyNodeStore.SIDES; d++) {
+            int neighbour = store.unlink(id, d);
+            if (neighbour != EnergyNodeStore.NONE) {
+                starts[count++] = neighbour;
+            }
+        }
+        store.remove(id);
+        return splitter.split(store, starts, count);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.sib_energy_craft.energy_api.statistics;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lifetime energy counters of statistics
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyStatisticsTest {
+
+    @Test
+    void energyTotalsDoNotOverflow() {
+        var statistics = new EnergyStatistics(null, EnergyStatistics.NETWORK_WINDOW);
+
+        for (int i = 0; i < 3; i++) {
+            statistics.addEnergyDelivered(Long.MAX_VALUE);
+            statistics.completeTick();
+        }
+
+        var expected = Energy.ofRaw(Long.MAX_VALUE).getAmount().multiply(BigDecimal.valueOf(3));
+        assertEquals(0, expected.compareTo(statistics.getEnergyDelivered()));
+    }
+
+    @Test
+    void fractionIsCarriedIntoUnits() {
+        var statistics = new EnergyStatistics(null, EnergyStatistics.NETWORK_WINDOW);
+        var half = Energy.of(new BigDecimal("0.5")).getRaw();
+
+        for (int i = 0; i < 5; i++) {
+            statistics.addEnergyLost(half);
+            statistics.completeTick();
+        }
+        statistics.addEnergyLost(half);
+
+        assertEquals(0, new BigDecimal("3").compareTo(statistics.getEnergyLost()));
+    }
+
+    @Test
+    void parentCountsEnergyOfChildren() {
+        var world = new EnergyStatistics(null, EnergyStatistics.WORLD_WINDOW);
+        var first = new EnergyStatistics(world, EnergyStatistics.NETWORK_WINDOW);
+        var second = new EnergyStatistics(world, EnergyStatistics.NETWORK_WINDOW);
+
+        first.addEnergyDelivered(Energy.toRaw(10));
+        second.addEnergyDelivered(Energy.toRaw(5));
+
+        assertEquals(0, new BigDecimal("15").compareTo(world.getEnergyDelivered()));
+        assertEquals(0, new BigDecimal("10").compareTo(first.getEnergyDelivered()));
+    }
+}
@@ -0,0 +1,319 @@
+package com.github.sib_energy_craft.energy_api.storage;
+
+import com.github.sib_energy_craft.energy_api.Energy;
+import com.github.sib_energy_craft.energy_api.EnergyLevel;
+import com.github.sib_energy_craft.energy_api.EnergyOffer;
+import com.github.sib_energy_craft.energy_api.supplier.EnergySupplier;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limits and compare-and-set semantics of energy storage
+ *
+ * @since 0.0.5
+ * @author sibmaks
+ */
+class EnergyStorageTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void insertIsLimitedByMaxInputAndCapacity() {
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L2, Energy.of(40), Energy.of(40));
+
+        assertEquals(Energy.of(40), storage.insert(Energy.of(50), false));
+        assertEquals(Energy.of(40), storage.insert(Energy.of(50), false));
+        assertEquals(Energy.of(20), storage.insert(Energy.of(50), false));
+        assertEquals(Energy.ZERO, storage.insert(Energy.of(50), false));
+        assertTrue(storage.isFull());
+    }
+
+    @Test
+    void limitsAreCappedByEnergyLevel() {
+        var storage = new EnergyStorage(Energy.of(1000), EnergyLevel.L1, Energy.of(500), Energy.of(500));
+
+        assertEquals(EnergyLevel.L1.toBig, storage.getMaxInput());
+        assertEquals(EnergyLevel.L1.toBig, storage.getMaxOutput());
+    }
+
+    @Test
+    void simulationDoesNotChangeStorage() {
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        storage.setStored(Energy.of(10));
+
+        assertEquals(Energy.of(32), storage.insert(Energy.of(50), true));
+        assertEquals(Energy.of(10), storage.extract(Energy.of(20), true));
+        assertTrue(storage.extractExact(Energy.of(10), true));
+        assertEquals(Energy.of(10), storage.getStored());
+    }
+
+    @Test
+    void extractIsLimitedByStoredEnergy() {
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        storage.setStored(Energy.of(20));
+
+        assertEquals(Energy.of(20), storage.extract(Energy.of(30), false));
+        assertEquals(Energy.ZERO, storage.extract(Energy.of(30), false));
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    void extractExactIsAllOrNothing() {
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        storage.setStored(Energy.of(20));
+
+        assertFalse(storage.extractExact(Energy.of(21), false));
+        assertFalse(storage.extractExact(Energy.of(33), false));
+        assertEquals(Energy.of(20), storage.getStored());
+        assertTrue(storage.extractExact(Energy.of(20), false));
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    void acceptedOfferIsStored() {
+        var source = new Source(100);
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+
+        assertTrue(storage.receiveOffer(source.createOffer(30)));
+
+        assertEquals(Energy.of(30), storage.getStored());
+        assertEquals(Energy.of(70), source.storage.getStored());
+    }
+
+    @Test
+    void reservationIsReturnedWhenOfferIsDeclined() {
+        var source = new Source(10);
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+
+        assertFalse(storage.receiveOffer(source.createOffer(20)));
+
+        assertTrue(storage.isEmpty());
+        assertEquals(Energy.of(10), source.storage.getStored());
+    }
+
+    @Test
+    void offerIsNotReceivedWithoutSpace() {
+        var source = new Source(100);
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        storage.setStored(Energy.of(90));
+
+        assertFalse(storage.receiveOffer(source.createOffer(20)));
+        assertFalse(storage.receiveOffer(source.createOffer(40)));
+
+        assertEquals(Energy.of(90), storage.getStored());
+        assertEquals(Energy.of(100), source.storage.getStored());
+    }
+
+    @Test
+    void concurrentInsertsDoNotOverfill() throws Exception {
+        var capacity = 100_000L;
+        var storage = new EnergyStorage(Energy.ofRaw(capacity), EnergyLevel.L1);
+        var inserted = new AtomicLong();
+
+        runConcurrently(() -> {
+            long amount;
+            while ((amount = storage.insertRaw(7, false)) > 0) {
+                inserted.addAndGet(amount);
+            }
+        });
+
+        assertEquals(capacity, storage.getStoredRaw());
+        assertEquals(capacity, inserted.get());
+    }
+
+    @Test
+    void concurrentExtractsDoNotOverdraw() throws Exception {
+        var capacity = 100_000L;
+        var storage = new EnergyStorage(Energy.ofRaw(capacity), EnergyLevel.L1);
+        storage.setStored(Energy.ofRaw(capacity));
+        var extracted = new AtomicLong();
+        var exact = new AtomicLong();
+
+        runConcurrently(() -> {
+            long amount;
+            while ((amount = storage.extractRaw(7, false)) > 0) {
+                extracted.addAndGet(amount);
+                if (storage.extractExact(Energy.ofRaw(3), false)) {
+                    exact.addAndGet(3);
+                }
+            }
+        });
+
+        assertTrue(storage.isEmpty());
+        assertEquals(capacity, extracted.get() + exact.get());
+    }
+
+    @Test
+    void concurrentReceiversAcceptOfferOnce() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            var source = new Source(32);
+            var offer = source.createOffer(32);
+            var storages = new EnergyStorage[THREADS];
+            var index = new AtomicInteger();
+            var accepted = new AtomicInteger();
+            for (int s = 0; s < THREADS; s++) {
+                storages[s] = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+            }
+
+            runConcurrently(() -> {
+                if (storages[index.getAndIncrement()].receiveOffer(offer)) {
+                    accepted.incrementAndGet();
+                }
+            });
+
+            assertEquals(1, accepted.get());
+            long stored = 0;
+            for (var storage : storages) {
+                stored += storage.getStoredRaw();
+            }
+            assertEquals(Energy.toRaw(32), stored);
+            assertTrue(source.storage.isEmpty());
+        }
+    }
+
+    @Test
+    void reservedSpaceIsNotExtracted() throws Exception {
+        var storage = new EnergyStorage(Energy.of(1_000_000), EnergyLevel.L1);
+        var receivers = new AtomicInteger(THREADS / 2);
+        var accepted = new AtomicLong();
+        var extracted = new AtomicLong();
+        var index = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (index.getAndIncrement() % 2 == 0) {
+                for (int i = 0; i < 10_000; i++) {
+                    // every second source has no energy and declines offer
+                    var source = new Source(i % 2 == 0 ? 10 : 0);
+                    if (storage.receiveOffer(source.createOffer(10))) {
+                        accepted.addAndGet(Energy.toRaw(10));
+                    }
+                }
+                receivers.decrementAndGet();
+            } else {
+                while (receivers.get() > 0) {
+                    extracted.addAndGet(storage.extractRaw(Energy.toRaw(7), false));
+                    assertTrue(storage.getStoredRaw() >= 0);
+                }
+            }
+        });
+
+        assertEquals(Energy.toRaw(50_000) * THREADS / 2, accepted.get());
+        assertEquals(accepted.get() - extracted.get(), storage.getStoredRaw());
+        assertEquals(storage.getCapacity().getRaw() - storage.getStoredRaw(), storage.getFreeSpace().getRaw());
+    }
+
+    @Test
+    void selfSupplyingStorageWithoutEnergyDeclinesOwnOffer() {
+        var battery = new Source(0);
+
+        assertFalse(battery.storage.receiveOffer(battery.createOffer(20)));
+
+        assertTrue(battery.storage.isEmpty());
+        assertEquals(battery.storage.getCapacity(), battery.storage.getFreeSpace());
+    }
+
+    @Test
+    void selfSupplyingStorageConservesEnergy() {
+        var battery = new Source(20);
+
+        assertTrue(battery.storage.receiveOffer(battery.createOffer(20)));
+        assertFalse(battery.storage.receiveOffer(battery.createOffer(30)));
+
+        assertEquals(Energy.of(20), battery.storage.getStored());
+    }
+
+    @Test
+    void storedEnergyIsPersisted() {
+        var storage = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        storage.setStored(Energy.of(42));
+        var nbt = new NbtCompound();
+
+        storage.writeNbt(nbt);
+        var loaded = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        loaded.readNbt(nbt);
+
+        assertEquals(Energy.of(42), loaded.getStored());
+    }
+
+    @Test
+    void loadedEnergyIsCappedByCapacity() {
+        var nbt = new NbtCompound();
+        new EnergyStorage(Energy.of(1000), EnergyLevel.L1, Energy.of(1000), Energy.of(1000)).writeNbt(nbt);
+        nbt.putLong(EnergyStorage.ENERGY, Energy.toRaw(500));
+
+        var loaded = new EnergyStorage(Energy.of(100), EnergyLevel.L1);
+        loaded.readNbt(nbt);
+
+        assertEquals(Energy.of(100), loaded.getStored());
+        loaded.readNbt(new NbtCompound());
+        assertTrue(loaded.isEmpty());
+    }
+
+    private static void runConcurrently(@NotNull Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Supplier, that supplies energy of own storage
+     */
+    private static final class Source implements EnergySupplier {
+        private final EnergyStorage storage = new EnergyStorage(Energy.of(1000), EnergyLevel.L1);
+
+        private Source(int energy) {
+            storage.setStored(Energy.of(energy));
+        }
+
+        @NotNull
+        private EnergyOffer createOffer(int energy) {
+            return new EnergyOffer(this, Energy.of(energy));
+        }
+
+        @NotNull
+        @Override
+        public Set<Direction> getSupplyingDirections() {
+            return EnumSet.allOf(Direction.class);
+        }
+
+        @NotNull
+        @Override
+        public EnergyOffer createOffer() {
+            return createOffer(EnergyLevel.L1.to);
+        }
+
+        @Override
+        public boolean supplyEnergy(@NotNull Energy energy) {
+            return storage.extractExact(energy, false);
+        }
+    }
+}